@@ -0,0 +1,39 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Controllers declare {@code ResponseEntity<Object>}, so WebFlux sees a streamed server body only as
+ * a publisher of {@code Object} and hands it to Jackson. Such bodies are already JSON and are copied
+ * to the response buffer by buffer instead of being serialized again.
+ */
+public class PassthroughJsonEncoder extends Jackson2JsonEncoder {
+
+    public PassthroughJsonEncoder(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (elementType.toClass() != Object.class) {
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+        return Flux.from(inputStream).switchOnFirst((first, body) -> {
+            if (first.hasValue() && !(first.get() instanceof DataBuffer)) {
+                return super.encode(body, bufferFactory, elementType, mimeType, hints);
+            }
+            return body.cast(DataBuffer.class);
+        });
+    }
+}
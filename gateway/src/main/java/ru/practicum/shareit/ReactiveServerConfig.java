@@ -0,0 +1,39 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.WebFilter;
+import ru.practicum.shareit.client.ConditionalRequest;
+
+/**
+ * Tomcat stays on the classpath for the servlet mode, so the reactive mode asks for Netty explicitly:
+ * Spring Boot would otherwise prefer Tomcat for the reactive server as well.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Puts the If-None-Match header of the request in the Reactor context, see {@link ConditionalRequest}.
+     */
+    @Bean
+    public WebFilter conditionalRequestFilter() {
+        return (exchange, chain) -> chain.filter(exchange).contextWrite(context -> ConditionalRequest.withIfNoneMatch(
+                context, exchange.getRequest().getHeaders().get(HttpHeaders.IF_NONE_MATCH)));
+    }
+
+    @Bean
+    public CodecCustomizer passthroughJsonCodecCustomizer(ObjectMapper objectMapper) {
+        return configurer -> configurer.defaultCodecs().jackson2JsonEncoder(new PassthroughJsonEncoder(objectMapper));
+    }
+}
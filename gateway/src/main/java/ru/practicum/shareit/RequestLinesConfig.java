@@ -0,0 +1,101 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.utils.RequestLines;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves {@link RequestLines} parameters in both gateway modes.
+ */
+@Slf4j
+public class RequestLinesConfig {
+
+    /**
+     * The servlet body can only be read blocking, so the lines are read on the bounded elastic
+     * scheduler and the handler pipeline runs there as well.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public static class ServletRequestLinesConfig implements WebMvcConfigurer {
+
+        @Override
+        public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+            resolvers.add(new HandlerMethodArgumentResolver() {
+                @Override
+                public boolean supportsParameter(MethodParameter parameter) {
+                    return parameter.hasParameterAnnotation(RequestLines.class);
+                }
+
+                @Override
+                public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                              NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+                    HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+                    Charset charset = request.getCharacterEncoding() != null
+                            ? Charset.forName(request.getCharacterEncoding())
+                            : StandardCharsets.UTF_8;
+                    return Flux.using(() -> new BufferedReader(new InputStreamReader(request.getInputStream(), charset)),
+                                    reader -> Flux.fromStream(reader.lines()),
+                                    RequestLinesConfig::close)
+                            .subscribeOn(Schedulers.boundedElastic());
+                }
+            });
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public static class ReactiveRequestLinesConfig implements WebFluxConfigurer {
+        private static final StringDecoder LINE_DECODER = StringDecoder.allMimeTypes();
+
+        @Override
+        public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+            configurer.addCustomResolver(new org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver() {
+                @Override
+                public boolean supportsParameter(MethodParameter parameter) {
+                    return parameter.hasParameterAnnotation(RequestLines.class);
+                }
+
+                @Override
+                public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext,
+                                                    ServerWebExchange exchange) {
+                    return Mono.just(LINE_DECODER.decode(exchange.getRequest().getBody(),
+                            ResolvableType.forClass(String.class),
+                            exchange.getRequest().getHeaders().getContentType(), Map.of()));
+                }
+            });
+        }
+    }
+
+    private static void close(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.warn("Request body was not closed", e);
+        }
+    }
+}
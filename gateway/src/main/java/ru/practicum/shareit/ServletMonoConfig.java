@@ -0,0 +1,105 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ConditionalRequest;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The servlet transport answers on the calling thread, so a controller {@code Mono} is resolved on the
+ * Tomcat thread and written as the {@code ResponseEntity} it holds. Spring MVC would otherwise start
+ * an async dispatch for every such answer. {@code Flux} answers keep the asynchronous handling.
+ * The If-None-Match header of the request is put in the Reactor context, see {@link ConditionalRequest}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServletMonoConfig implements InitializingBean {
+    private final RequestMappingHandlerAdapter handlerAdapter;
+
+    public ServletMonoConfig(RequestMappingHandlerAdapter handlerAdapter) {
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(handlerAdapter.getReturnValueHandlers());
+        HandlerMethodReturnValueHandler entityHandler = handlers.stream()
+                .filter(HttpEntityMethodProcessor.class::isInstance)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No ResponseEntity return value handler"));
+        handlers.add(0, new MonoReturnValueHandler(entityHandler));
+        handlerAdapter.setReturnValueHandlers(handlers);
+    }
+
+    private static class MonoReturnValueHandler implements HandlerMethodReturnValueHandler {
+        private final HandlerMethodReturnValueHandler entityHandler;
+
+        MonoReturnValueHandler(HandlerMethodReturnValueHandler entityHandler) {
+            this.entityHandler = entityHandler;
+        }
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return Mono.class.isAssignableFrom(returnType.getParameterType());
+        }
+
+        @Override
+        public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                      NativeWebRequest webRequest) throws Exception {
+            String[] ifNoneMatch = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+            Object entity = returnValue != null
+                    ? ((Mono<?>) returnValue)
+                            .contextWrite(context -> ConditionalRequest.withIfNoneMatch(context,
+                                    ifNoneMatch != null ? List.of(ifNoneMatch) : null))
+                            .block()
+                    : null;
+            entityHandler.handleReturnValue(entity, new EntityParameter(returnType), mavContainer, webRequest);
+        }
+    }
+
+    /**
+     * The return type of the handler method as if it declared the {@code ResponseEntity} held by the mono.
+     */
+    private static class EntityParameter extends MethodParameter {
+        private final Type entityType;
+
+        EntityParameter(MethodParameter returnType) {
+            super(returnType);
+            this.entityType = ResolvableType.forMethodParameter(returnType).getGeneric().getType();
+        }
+
+        private EntityParameter(EntityParameter original) {
+            super(original);
+            this.entityType = original.entityType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return ResponseEntity.class;
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return entityType;
+        }
+
+        @Override
+        public EntityParameter clone() {
+            return new EntityParameter(this);
+        }
+    }
+}
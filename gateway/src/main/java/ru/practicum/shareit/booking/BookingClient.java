@@ -1,33 +1,28 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingIncome;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final List<String> INVALIDATED_PREFIXES = List.of("/bookings", "/items", "/summary");
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerTransport transport, ResponseCache responseCache) {
+        super(transport, responseCache, API_PREFIX, INVALIDATED_PREFIXES);
     }
 
-    public ResponseEntity<Object> approveBooking(long bookingId, long user, boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(long bookingId, long user, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "bookingId", bookingId,
                 "approved", approved
@@ -36,15 +31,19 @@ public class BookingClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookingIncome requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookingIncome requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> bookItems(long userId, List<BookingIncome> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -53,7 +52,7 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwner(int from, int size, long user, BookingState state) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(int from, int size, long user, BookingState state) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -61,4 +60,32 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", user, parameters);
     }
+
+    public Mono<ResponseEntity<Object>> exportBookings(long userId) {
+        return stream("/export", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> exportBookingsByOwner(long userId) {
+        return stream("/owner/export", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsAfter(long userId, BookingState state, LocalDateTime afterStart, long afterId, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "afterStart", afterStart,
+                "afterId", afterId,
+                "size", size
+        );
+        return get("?state={state}&afterStart={afterStart}&afterId={afterId}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwnerAfter(long userId, BookingState state, LocalDateTime afterStart, long afterId, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "afterStart", afterStart,
+                "afterId", afterId,
+                "size", size
+        );
+        return get("/owner?state={state}&afterStart={afterStart}&afterId={afterId}&size={size}", userId, parameters);
+    }
 }
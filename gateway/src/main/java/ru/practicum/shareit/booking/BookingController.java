@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -13,13 +14,20 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingIncome;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exceptions.LockedException;
 import ru.practicum.shareit.utils.ConstantUtils;
 import ru.practicum.shareit.utils.Marker;
 
+import javax.validation.Validator;
+import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -27,40 +35,72 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
+    private final Validator validator;
 
     @PostMapping
-    public ResponseEntity<Object> addBooking(@RequestBody @Validated(Marker.OnCreate.class) BookingIncome bookingIncome,
-                                             @RequestHeader(ConstantUtils.USER_ID) long user) {
+    public Mono<ResponseEntity<Object>> addBooking(@RequestBody @Validated(Marker.OnCreate.class) BookingIncome bookingIncome,
+                                                   @RequestHeader(ConstantUtils.USER_ID) long user) {
         return bookingClient.bookItem(user, bookingIncome);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addBookings(@RequestBody List<BookingIncome> bookingIncomes,
+                                                    @RequestHeader(ConstantUtils.USER_ID) long user) {
+        validateBatch(bookingIncomes);
+        return bookingClient.bookItems(user, bookingIncomes);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@PathVariable long bookingId, @RequestParam boolean approved,
-                                                 @RequestHeader(ConstantUtils.USER_ID) long user) {
+    public Mono<ResponseEntity<Object>> approveBooking(@PathVariable long bookingId, @RequestParam boolean approved,
+                                                       @RequestHeader(ConstantUtils.USER_ID) long user) {
         return bookingClient.approveBooking(bookingId, user, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(ConstantUtils.USER_ID) long user, @PathVariable long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(ConstantUtils.USER_ID) long user, @PathVariable long bookingId) {
         return bookingClient.getBooking(user, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookings(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
-                                                 @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
-                                                 @RequestHeader(ConstantUtils.USER_ID) long user,
-                                                 @RequestParam(defaultValue = "ALL") String state) {
+    public Mono<ResponseEntity<Object>> getAllBookings(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
+                                                       @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
+                                                       @RequestHeader(ConstantUtils.USER_ID) long user,
+                                                       @RequestParam(defaultValue = "ALL") String state,
+                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                       @Positive @RequestParam(required = false) Long afterId) {
         var stateValidated = validateState(state);
+        if (afterStart != null || afterId != null) {
+            validateCursor(afterStart, afterId, size);
+            return bookingClient.getBookingsAfter(user, stateValidated, afterStart, afterId, size);
+        }
         return bookingClient.getBookings(user, stateValidated, from, size);
     }
 
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Object>> exportBookings(@RequestHeader(ConstantUtils.USER_ID) long user) {
+        return bookingClient.exportBookings(user);
+    }
+
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<Object>> exportBookingsByOwner(@RequestHeader(ConstantUtils.USER_ID) long user) {
+        return bookingClient.exportBookingsByOwner(user);
+    }
+
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsByOwner(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
-                                                        @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
-                                                        @RequestHeader(ConstantUtils.USER_ID) long user,
-                                                        @RequestParam(defaultValue = "ALL") String state) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
+                                                              @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
+                                                              @RequestHeader(ConstantUtils.USER_ID) long user,
+                                                              @RequestParam(defaultValue = "ALL") String state,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                              @Positive @RequestParam(required = false) Long afterId) {
         var stateValidated = validateState(state);
+        if (afterStart != null || afterId != null) {
+            validateCursor(afterStart, afterId, size);
+            return bookingClient.getAllBookingsByOwnerAfter(user, stateValidated, afterStart, afterId, size);
+        }
         return bookingClient.getAllBookingsByOwner(from, size, user, stateValidated);
     }
 
@@ -72,4 +112,24 @@ public class BookingController {
         }
     }
 
+    private void validateBatch(List<BookingIncome> bookingIncomes) {
+        if (bookingIncomes.isEmpty() || bookingIncomes.size() > MAX_BATCH_SIZE) {
+            throw new LockedException("A batch must hold from 1 to " + MAX_BATCH_SIZE + " bookings");
+        }
+        List<Integer> invalid = IntStream.range(0, bookingIncomes.size())
+                .filter(i -> bookingIncomes.get(i) == null
+                        || !validator.validate(bookingIncomes.get(i), Marker.OnCreate.class).isEmpty())
+                .boxed()
+                .collect(Collectors.toList());
+        if (!invalid.isEmpty()) {
+            throw new LockedException("Invalid bookings at positions " + invalid);
+        }
+    }
+
+    private void validateCursor(LocalDateTime afterStart, Long afterId, int size) {
+        if (afterStart == null || afterId == null || size == 0) {
+            throw new LockedException("Incorrect page query");
+        }
+    }
+
 }
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Copies a relayed body as it passes through and hands the copy on once the body ended, unless it
+ * outgrew {@code maxSize} bytes, in which case copying stops.
+ */
+class BodyCopy {
+    private final int maxSize;
+    private final Consumer<byte[]> onComplete;
+    private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    BodyCopy(int maxSize, Consumer<byte[]> onComplete) {
+        this.maxSize = maxSize;
+        this.onComplete = onComplete;
+    }
+
+    void write(byte[] buffer, int offset, int length) {
+        if (fits(length)) {
+            bytes.write(buffer, offset, length);
+        }
+    }
+
+    void write(DataBuffer buffer) {
+        ByteBuffer readable = buffer.asByteBuffer();
+        if (fits(readable.remaining())) {
+            byte[] chunk = new byte[readable.remaining()];
+            readable.get(chunk);
+            bytes.write(chunk, 0, chunk.length);
+        }
+    }
+
+    void complete() {
+        if (bytes != null) {
+            byte[] body = bytes.toByteArray();
+            bytes = null;
+            onComplete.accept(body);
+        }
+    }
+
+    private boolean fits(int length) {
+        if (bytes != null && bytes.size() + length > maxSize) {
+            bytes = null;
+        }
+        return bytes != null;
+    }
+}
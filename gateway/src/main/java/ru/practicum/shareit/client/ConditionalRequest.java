@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.lang.Nullable;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Carries the If-None-Match header of the gateway request to {@link BaseClient} in the Reactor context.
+ * A GET missing the response cache forwards it, so the server decides whether the client holds the
+ * current version and answers 304 without a body. Left to itself, the gateway would answer 304 over a
+ * relayed server body that is then never read, and its pooled connection never released.
+ */
+public final class ConditionalRequest {
+    private static final String IF_NONE_MATCH = ConditionalRequest.class.getName() + ".ifNoneMatch";
+
+    private ConditionalRequest() {
+    }
+
+    public static Context withIfNoneMatch(Context context, @Nullable List<String> ifNoneMatch) {
+        return ifNoneMatch == null || ifNoneMatch.isEmpty()
+                ? context
+                : context.put(IF_NONE_MATCH, String.join(", ", ifNoneMatch));
+    }
+
+    static Optional<String> ifNoneMatch(ContextView context) {
+        return context.getOrEmpty(IF_NONE_MATCH);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps small successful server answers to GET requests for a short time, keyed by the expanded URI and the user.
+ * A missed answer is still relayed as it streams in; a copy is kept only if the whole body fits the entry limit,
+ * and the cache as a whole is bounded by the size of the kept bodies.
+ * <p>
+ * Every key carries the generation of its API prefix. A write bumps the generations of the prefixes it can
+ * affect, so the older entries are never read again and are evicted by size or TTL. A read that was in flight
+ * during the write stores its answer under the old generation, where it is never found.
+ */
+public class ResponseCache {
+    private static final String ALL_PREFIXES = "/";
+
+    private final Cache<String, ResponseEntity<byte[]>> cache;
+    private final int maxEntryBytes;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes().toBytes())
+                .weigher((String key, ResponseEntity<byte[]> response) -> key.length() + response.getBody().length)
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.maxEntryBytes = (int) properties.getMaxEntryBytes().toBytes();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "shareit-server-responses");
+    }
+
+    public Mono<ResponseEntity<Object>> get(String prefix, String uri, Long userId, Loader loader) {
+        String key = key(prefix, uri, userId);
+        ResponseEntity<byte[]> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(ResponseEntity.status(cached.getStatusCode())
+                    .headers(cached.getHeaders())
+                    .body(cached.getBody()));
+        }
+        return loader.load(maxEntryBytes, response -> {
+            if (response.getStatusCode() == HttpStatus.OK) {
+                cache.put(key, response);
+            }
+        });
+    }
+
+    /**
+     * @param prefixes API prefixes such as {@code /items}, or {@code /} for all of them
+     */
+    public void invalidate(Collection<String> prefixes) {
+        prefixes.forEach(prefix -> generation(prefix).incrementAndGet());
+    }
+
+    private String key(String prefix, String uri, Long userId) {
+        String key = generation(ALL_PREFIXES).get() + "." + generation(prefix).get() + ":" + uri;
+        return userId != null ? key + "#" + userId : key;
+    }
+
+    private AtomicLong generation(String prefix) {
+        return generations.computeIfAbsent(prefix, p -> new AtomicLong());
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Relays the server answer and hands a copy of it to {@code onCopy} once it was read whole,
+         * if its body is at most {@code maxCopySize} bytes.
+         */
+        Mono<ResponseEntity<Object>> load(int maxCopySize, Consumer<ResponseEntity<byte[]>> onCopy);
+    }
+}
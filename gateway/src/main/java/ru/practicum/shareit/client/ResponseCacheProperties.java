@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.response-cache")
+public class ResponseCacheProperties {
+    private DataSize maxBytes = DataSize.ofMegabytes(64);
+    private DataSize maxEntryBytes = DataSize.ofKilobytes(64);
+    private Duration ttl = Duration.ofSeconds(5);
+}
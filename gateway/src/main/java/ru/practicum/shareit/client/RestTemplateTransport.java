@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Blocking transport used by the servlet gateway: the request runs on the calling Tomcat thread.
+ * The server body is never read by the gateway: its stream is copied to the gateway response and
+ * the pooled connection is released when the copy closes it.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+    private final int maxInMemorySize;
+
+    public RestTemplateTransport(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                 ClientHttpRequestFactory serverRequestFactory, HttpClientProperties properties) {
+        this.maxInMemorySize = (int) properties.getMaxInMemorySize().toBytes();
+        this.rest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .requestFactory(() -> serverRequestFactory)
+                .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> prepareGatewayResponse(send(method, path, headers, parameters, body), null));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchangeAndCopy(HttpMethod method, String path, HttpHeaders headers,
+                                                        @Nullable Map<String, Object> parameters, int maxCopySize,
+                                                        Consumer<ResponseEntity<byte[]>> onCopy) {
+        return Mono.fromCallable(() -> {
+            ClientHttpResponse response = send(method, path, headers, parameters, null);
+            int status = response.getRawStatusCode();
+            HttpHeaders relayedHeaders = ServerTransport.relayedHeaders(response.getHeaders());
+            BodyCopy copy = response.getHeaders().getContentLength() <= maxCopySize
+                    ? new BodyCopy(maxCopySize, bytes -> onCopy.accept(
+                            ResponseEntity.status(status).headers(relayedHeaders).body(bytes)))
+                    : null;
+            return prepareGatewayResponse(response, copy);
+        });
+    }
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchangeForBytes(HttpMethod method, String path, HttpHeaders headers,
+                                                         @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> {
+            try (ClientHttpResponse response = send(method, path, headers, parameters, body)) {
+                return ResponseEntity.status(response.getRawStatusCode())
+                        .headers(ServerTransport.relayedHeaders(response.getHeaders()))
+                        .body(readAtMost(response.getBody(), maxInMemorySize));
+            }
+        });
+    }
+
+    private ClientHttpResponse send(HttpMethod method, String path, HttpHeaders headers,
+                                    @Nullable Map<String, Object> parameters, @Nullable Object body) throws IOException {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+        rest.httpEntityCallback(new HttpEntity<>(body, headers)).doWithRequest(request);
+        return request.execute();
+    }
+
+    private static byte[] readAtMost(InputStream body, int maxSize) throws IOException {
+        byte[] bytes = body.readNBytes(maxSize + 1);
+        if (bytes.length > maxSize) {
+            throw new DataBufferLimitException("Exceeded limit on max bytes to buffer : " + maxSize);
+        }
+        return bytes;
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ClientHttpResponse response,
+                                                                 @Nullable BodyCopy copy) throws IOException {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode())
+                .headers(ServerTransport.relayedHeaders(response.getHeaders()));
+
+        if (response.getRawStatusCode() != HttpStatus.NOT_MODIFIED.value() && response.getHeaders().getContentLength() != 0) {
+            InputStream body = copy != null ? new CopyingInputStream(response.getBody(), copy) : response.getBody();
+            return responseBuilder.body(new InputStreamResource(body));
+        }
+
+        response.close();
+        return responseBuilder.build();
+    }
+
+    private static class CopyingInputStream extends FilterInputStream {
+        private final BodyCopy copy;
+
+        CopyingInputStream(InputStream in, BodyCopy copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                copy.complete();
+            } else {
+                copy.write(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n == -1) {
+                copy.complete();
+            } else {
+                copy.write(b, off, n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Sends a request to the shareit server and relays its answer as is: error statuses are
+ * returned as responses with the server body instead of being thrown.
+ */
+public interface ServerTransport {
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    /**
+     * Same as {@link #exchange}, and once the relayed body was read whole hands a copy of the answer
+     * to {@code onCopy}, unless the body is larger than {@code maxCopySize} bytes.
+     */
+    Mono<ResponseEntity<Object>> exchangeAndCopy(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, int maxCopySize,
+                                                 Consumer<ResponseEntity<byte[]>> onCopy);
+
+    /**
+     * Same as {@link #exchange} but reads the whole server body, for answers the gateway inspects.
+     * Bodies over {@code shareit-server.http-client.max-in-memory-size} fail with a
+     * {@link org.springframework.core.io.buffer.DataBufferLimitException}.
+     */
+    Mono<ResponseEntity<byte[]>> exchangeForBytes(HttpMethod method, String path, HttpHeaders headers,
+                                                  @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    /**
+     * Headers of a server answer that are copied to the gateway response. The others describe the
+     * server connection, and Content-Length is recomputed for the gateway response. The ETag lets the
+     * gateway answer 304 Not Modified itself from a cached answer when the client already holds it.
+     * A 304 of the server is relayed without a body, its connection released.
+     */
+    static HttpHeaders relayedHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders.getContentType() != null) {
+            headers.setContentType(serverHeaders.getContentType());
+        }
+        if (serverHeaders.getETag() != null) {
+            headers.setETag(serverHeaders.getETag());
+        }
+        return headers;
+    }
+}
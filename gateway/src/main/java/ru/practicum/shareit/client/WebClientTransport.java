@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking transport used by the reactive gateway. The server body is never decoded:
+ * its buffers are written to the gateway response as they arrive.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebClientTransport implements ServerTransport {
+    private final WebClient serverWebClient;
+
+    public WebClientTransport(WebClient serverWebClient) {
+        this.serverWebClient = serverWebClient;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return retrieve(method, path, headers, parameters, body)
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(response -> relay(response, response.getBody()));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchangeAndCopy(HttpMethod method, String path, HttpHeaders headers,
+                                                        @Nullable Map<String, Object> parameters, int maxCopySize,
+                                                        Consumer<ResponseEntity<byte[]>> onCopy) {
+        return retrieve(method, path, headers, parameters, null)
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(response -> {
+                    Flux<DataBuffer> body = response.getBody();
+                    if (response.getHeaders().getContentLength() <= maxCopySize) {
+                        HttpHeaders relayedHeaders = ServerTransport.relayedHeaders(response.getHeaders());
+                        BodyCopy copy = new BodyCopy(maxCopySize, bytes -> onCopy.accept(
+                                ResponseEntity.status(response.getStatusCode()).headers(relayedHeaders).body(bytes)));
+                        body = body.doOnNext(copy::write).doOnComplete(copy::complete);
+                    }
+                    return relay(response, body);
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchangeForBytes(HttpMethod method, String path, HttpHeaders headers,
+                                                         @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return retrieve(method, path, headers, parameters, body)
+                .toEntity(byte[].class)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(ServerTransport.relayedHeaders(response.getHeaders()))
+                        .body(response.getBody()));
+    }
+
+    /**
+     * A 304 answer is relayed without a body, which is drained here: nothing would subscribe to it
+     * later, and an unread body keeps its connection leased.
+     */
+    private static Mono<ResponseEntity<Object>> relay(ResponseEntity<Flux<DataBuffer>> response, Flux<DataBuffer> body) {
+        ResponseEntity.BodyBuilder relayed = ResponseEntity.status(response.getStatusCode())
+                .headers(ServerTransport.relayedHeaders(response.getHeaders()));
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return body.doOnNext(DataBufferUtils::release).then(Mono.fromSupplier(relayed::build));
+        }
+        return Mono.just(relayed.body(body));
+    }
+
+    private WebClient.ResponseSpec retrieve(HttpMethod method, String path, HttpHeaders headers,
+                                            @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = serverWebClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.retrieve()
+                .onStatus(status -> true, response -> Mono.empty());
+    }
+}
@@ -1,42 +1,43 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.item.dto.CommentIncome;
 import ru.practicum.shareit.item.dto.ItemIncome;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final List<String> INVALIDATED_PREFIXES = List.of("/items", "/bookings", "/requests", "/summary");
 
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public ItemClient(ServerTransport transport, ResponseCache responseCache) {
+        super(transport, responseCache, API_PREFIX, INVALIDATED_PREFIXES);
     }
 
-    public ResponseEntity<Object> createItem(ItemIncome itemIncome, long owner) {
+    public Mono<ResponseEntity<Object>> createItem(ItemIncome itemIncome, long owner) {
         return post("", owner, itemIncome);
     }
 
-    public ResponseEntity<Object> updateItem(ItemIncome itemIncome, long owner, long itemId) {
+    public Mono<ResponseEntity<byte[]>> createItems(List<ItemIncome> itemIncomes, long owner) {
+        return postForBytes("/batch", owner, itemIncomes);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(ItemIncome itemIncome, long owner, long itemId) {
         Map<String, Object> parameters = Map.of(
                 "itemId", itemId
         );
         return patch("/{itemId}", owner, parameters, itemIncome);
     }
 
-    public ResponseEntity<Object> searchItems(int from, int size, String text) {
+    public Mono<ResponseEntity<Object>> searchItems(int from, int size, String text) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -45,7 +46,7 @@ public class ItemClient extends BaseClient {
         return get("/search?from={from}&size={size}&text={text}", null, parameters);
     }
 
-    public ResponseEntity<Object> getUserItems(int from, int size, long owner) {
+    public Mono<ResponseEntity<Object>> getUserItems(int from, int size, long owner) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -53,14 +54,37 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", owner, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, long userID) {
+    public Mono<ResponseEntity<Object>> exportUserItems(long owner) {
+        return stream("/export", owner);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemById(long itemId, long userID) {
         Map<String, Object> parameters = Map.of(
                 "itemId", itemId
         );
         return get("/{itemId}", userID, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long user, long itemId, CommentIncome commentIncome) {
+    public Mono<ResponseEntity<Object>> getFreeItems(LocalDateTime start, LocalDateTime end, long afterId, int size) {
+        Map<String, Object> parameters = Map.of(
+                "start", start,
+                "end", end,
+                "afterId", afterId,
+                "size", size
+        );
+        return get("/available?start={start}&end={end}&afterId={afterId}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemAvailability(long itemId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = Map.of(
+                "itemId", itemId,
+                "start", start,
+                "end", end
+        );
+        return get("/{itemId}/availability?start={start}&end={end}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(long user, long itemId, CommentIncome commentIncome) {
         Map<String, Object> parameters = Map.of(
                 "itemId", itemId
         );
@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,13 +16,19 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exceptions.LockedException;
 import ru.practicum.shareit.item.dto.CommentIncome;
+import ru.practicum.shareit.item.dto.ItemImportEvent;
 import ru.practicum.shareit.item.dto.ItemIncome;
 import ru.practicum.shareit.utils.ConstantUtils;
 import ru.practicum.shareit.utils.Marker;
+import ru.practicum.shareit.utils.RequestLines;
 
 import javax.validation.Valid;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -28,18 +37,28 @@ import javax.validation.constraints.PositiveOrZero;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemClient itemClient;
+    private final ItemImporter itemImporter;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestBody @Validated(Marker.OnCreate.class) ItemIncome itemIncome,
-                                             @RequestHeader(ConstantUtils.USER_ID) long owner) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestBody @Validated(Marker.OnCreate.class) ItemIncome itemIncome,
+                                                   @RequestHeader(ConstantUtils.USER_ID) long owner) {
         log.info("Requested creating item");
         return itemClient.createItem(itemIncome, owner);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemImportEvent> importItems(@RequestLines Flux<String> lines,
+                                             @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType format,
+                                             @RequestHeader(ConstantUtils.USER_ID) long owner) {
+        log.info("Requested items import by user {} from {}", owner, format);
+        return itemImporter.importItems(lines, format, owner);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestBody @Validated(Marker.OnUpdate.class) ItemIncome itemIncome,
-                                             @RequestHeader(ConstantUtils.USER_ID) long owner,
-                                             @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestBody @Validated(Marker.OnUpdate.class) ItemIncome itemIncome,
+                                                   @RequestHeader(ConstantUtils.USER_ID) long owner,
+                                                   @PathVariable long itemId) {
         log.info("Requested item with id {} update", itemIncome.getId());
         if (itemIncome.getId() == 0) {
             log.info("Item assigned an id - {} from the path", itemId);
@@ -49,33 +68,64 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsersItems(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
-                                                @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
-                                                @RequestHeader(ConstantUtils.USER_ID) long owner) {
+    public Mono<ResponseEntity<Object>> getUsersItems(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
+                                                      @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
+                                                      @RequestHeader(ConstantUtils.USER_ID) long owner) {
         log.info("Requested all user {} items", owner);
         return itemClient.getUserItems(from, size, owner);
     }
 
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Object>> exportUsersItems(@RequestHeader(ConstantUtils.USER_ID) long owner) {
+        log.info("Requested export of all user {} items", owner);
+        return itemClient.exportUserItems(owner);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
-                                              @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
-                                              @RequestParam String text) {
+    public Mono<ResponseEntity<Object>> searchItems(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
+                                                    @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
+                                                    @RequestParam String text) {
         log.info("Requested items like {}", text.toLowerCase());
         return itemClient.searchItems(from, size, text);
     }
 
+    @GetMapping("/available")
+    public Mono<ResponseEntity<Object>> getFreeItems(@PositiveOrZero @RequestParam(required = false, defaultValue = "0") long afterId,
+                                                     @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Requested items free from {} to {}", start, end);
+        validateWindow(start, end);
+        return itemClient.getFreeItems(start, end, afterId, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getItemAvailability(@PathVariable long itemId,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Requested item {} availability from {} to {}", itemId, start, end);
+        validateWindow(start, end);
+        return itemClient.getItemAvailability(itemId, start, end);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(ConstantUtils.USER_ID) long user,
-                                              @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader(ConstantUtils.USER_ID) long user,
+                                                    @PathVariable long itemId) {
         log.info("Requested item with id {}", itemId);
         return itemClient.getItemById(itemId, user);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(ConstantUtils.USER_ID) long user,
-                                             @PathVariable long itemId,
-                                             @RequestBody @Valid CommentIncome commentIncome) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(ConstantUtils.USER_ID) long user,
+                                                   @PathVariable long itemId,
+                                                   @RequestBody @Valid CommentIncome commentIncome) {
         log.info("requested add comment for item {} by user {}", itemId, user);
         return itemClient.addComment(user, itemId, commentIncome);
     }
+
+    private void validateWindow(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new LockedException("Wrong time");
+        }
+    }
 }
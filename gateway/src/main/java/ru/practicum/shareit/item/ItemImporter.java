@@ -0,0 +1,272 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
+import ru.practicum.shareit.item.dto.ItemImportEvent;
+import ru.practicum.shareit.item.dto.ItemIncome;
+import ru.practicum.shareit.utils.Marker;
+
+import javax.validation.Validator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Imports items from NDJSON or CSV lines. Rows are validated here with the {@link ItemIncome} rules
+ * and written in chunks, each chunk being one server batch and one transaction, so only a chunk
+ * of rows is held at a time whatever the size of the upload.
+ * <p>
+ * When a batch answer is lost, for example on a timeout, the server may have committed the chunk or not:
+ * its rows are reported as unknown rather than failed, so that they are checked before being sent again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImporter {
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    private static final int CHUNK_SIZE = 500;
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("name", "description", "available");
+
+    private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public Flux<ItemImportEvent> importItems(Flux<String> lines, MediaType format, long owner) {
+        return Flux.defer(() -> {
+            Progress progress = new Progress();
+            Flux<Tuple2<Long, String>> numbered = lines.index();
+            Flux<Row> rows = TEXT_CSV.isCompatibleWith(format) ? parseCsv(numbered) : parseNdjson(numbered);
+            return rows.buffer(CHUNK_SIZE)
+                    .concatMap(chunk -> importChunk(chunk, owner, progress))
+                    .concatWith(Mono.fromSupplier(() -> progress.event(true)));
+        });
+    }
+
+    private Flux<Row> parseNdjson(Flux<Tuple2<Long, String>> lines) {
+        return lines.filter(line -> !line.getT2().isBlank())
+                .map(line -> {
+                    try {
+                        return validate(line.getT1(), objectMapper.readValue(line.getT2(), ItemIncome.class));
+                    } catch (JsonProcessingException e) {
+                        return Row.rejected(line.getT1(), "Malformed JSON");
+                    }
+                });
+    }
+
+    private Flux<Row> parseCsv(Flux<Tuple2<Long, String>> lines) {
+        return lines.switchOnFirst((first, all) -> {
+            if (!first.hasValue()) {
+                return all.thenMany(Flux.empty());
+            }
+            List<String> header = splitCsv(first.get().getT2()).stream()
+                    .map(String::trim)
+                    .collect(Collectors.toList());
+            if (!header.containsAll(REQUIRED_CSV_COLUMNS)) {
+                return Flux.just(Row.rejected(first.get().getT1(), "CSV header must name the columns " + REQUIRED_CSV_COLUMNS));
+            }
+            return all.skip(1)
+                    .filter(line -> !line.getT2().isBlank())
+                    .map(line -> parseCsvRow(line.getT1(), header, splitCsv(line.getT2())));
+        });
+    }
+
+    Row parseCsvRow(long index, List<String> header, List<String> values) {
+        if (values.size() != header.size()) {
+            return Row.rejected(index, "Expected " + header.size() + " values but found " + values.size());
+        }
+        ItemIncome itemIncome = new ItemIncome();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).trim();
+            switch (header.get(i)) {
+                case "name":
+                    itemIncome.setName(value);
+                    break;
+                case "description":
+                    itemIncome.setDescription(value);
+                    break;
+                case "available":
+                    if (!value.isBlank()) {
+                        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                            return Row.rejected(index, "available must be true or false");
+                        }
+                        itemIncome.setAvailable(Boolean.parseBoolean(value));
+                    }
+                    break;
+                case "requestId":
+                    if (!value.isBlank()) {
+                        try {
+                            itemIncome.setRequestId(Long.parseLong(value));
+                        } catch (NumberFormatException e) {
+                            return Row.rejected(index, "requestId must be a number");
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return validate(index, itemIncome);
+    }
+
+    /**
+     * Splits a CSV line on commas outside double quotes; a doubled quote inside quotes is a literal
+     * quote. Values never span lines.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private Row validate(long index, ItemIncome itemIncome) {
+        if (itemIncome == null) {
+            return Row.rejected(index, "Malformed JSON");
+        }
+        itemIncome.setId(0);
+        String violations = validator.validate(itemIncome, Marker.OnCreate.class).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return violations.isEmpty() ? new Row(index + 1, itemIncome, null) : Row.rejected(index, violations);
+    }
+
+    private Flux<ItemImportEvent> importChunk(List<Row> chunk, long owner, Progress progress) {
+        List<ItemIncome> valid = chunk.stream()
+                .filter(row -> row.error == null)
+                .map(row -> row.itemIncome)
+                .collect(Collectors.toList());
+        if (valid.isEmpty()) {
+            return Flux.fromIterable(chunkEvents(chunk, List.of(), progress));
+        }
+        return itemClient.createItems(valid, owner)
+                .map(response -> Optional.ofNullable(serverErrors(response, valid.size())))
+                .onErrorResume(e -> {
+                    log.error("Item import chunk outcome is unknown", e);
+                    return Mono.just(Optional.empty());
+                })
+                .flatMapIterable(errors -> chunkEvents(chunk, errors.orElse(null), progress));
+    }
+
+    /**
+     * @param serverErrors the {@link #serverErrors} of the valid rows, null when the outcome of the batch is unknown
+     */
+    private List<ItemImportEvent> chunkEvents(List<Row> chunk, @Nullable List<String> serverErrors, Progress progress) {
+        List<ItemImportEvent> events = new ArrayList<>();
+        int next = 0;
+        for (Row row : chunk) {
+            if (row.error == null && serverErrors == null) {
+                events.add(ItemImportEvent.unknown(row.number));
+                progress.unknown++;
+                continue;
+            }
+            String error = row.error != null ? row.error : serverErrors.get(next++);
+            if (error != null) {
+                events.add(ItemImportEvent.error(row.number, error));
+                progress.failed++;
+            } else {
+                progress.created++;
+            }
+        }
+        progress.rows += chunk.size();
+        events.add(progress.event(false));
+        return events;
+    }
+
+    /**
+     * The error of every entry of a written chunk, null for the created ones. A rejected batch
+     * fails all its entries with the server message. Null if the batch was accepted but its
+     * answer cannot be read, since the entries may have been created.
+     */
+    @Nullable
+    List<String> serverErrors(ResponseEntity<byte[]> response, int size) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            try {
+                List<ItemBatchResult> results = objectMapper.readValue(response.getBody(),
+                        new TypeReference<List<ItemBatchResult>>() {
+                        });
+                if (results.size() != size) {
+                    throw new IllegalStateException("Expected " + size + " results but got " + results.size());
+                }
+                return results.stream()
+                        .map(result -> result.getStatus() == 200 ? null : result.getError())
+                        .collect(Collectors.toList());
+            } catch (IOException | RuntimeException e) {
+                log.error("Unreadable item batch answer", e);
+                return null;
+            }
+        }
+        try {
+            Map<String, String> error = objectMapper.readValue(response.getBody(),
+                    new TypeReference<Map<String, String>>() {
+                    });
+            return Collections.nCopies(size, error.getOrDefault("error", "Server answered " + response.getStatusCodeValue()));
+        } catch (IOException | RuntimeException e) {
+            log.error("Unreadable item batch error", e);
+            return Collections.nCopies(size, "Server answered " + response.getStatusCodeValue());
+        }
+    }
+
+    static class Row {
+        final int number;
+        final ItemIncome itemIncome;
+        final String error;
+
+        Row(long number, ItemIncome itemIncome, String error) {
+            this.number = (int) number;
+            this.itemIncome = itemIncome;
+            this.error = error;
+        }
+
+        static Row rejected(long index, String error) {
+            return new Row(index + 1, null, error);
+        }
+    }
+
+    private static class Progress {
+        private int rows;
+        private int created;
+        private int failed;
+        private int unknown;
+
+        ItemImportEvent event(boolean done) {
+            return ItemImportEvent.progress(rows, created, failed, unknown, done);
+        }
+    }
+}
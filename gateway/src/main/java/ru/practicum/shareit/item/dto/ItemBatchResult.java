@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+/**
+ * An entry of the server answer to a batch of imported items.
+ */
+@Data
+public class ItemBatchResult {
+    private int status;
+    private Long id;
+    private String error;
+}
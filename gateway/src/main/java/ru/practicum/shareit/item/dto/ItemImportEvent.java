@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A line of the item import answer: the error of a rejected row, a row whose outcome is unknown,
+ * or the progress after a chunk of rows was written, the last progress line having {@code done} set.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportEvent {
+    private String type;
+    private Integer row;
+    private String error;
+    private Integer rows;
+    private Integer created;
+    private Integer failed;
+    private Integer unknown;
+    private Boolean done;
+
+    public static ItemImportEvent error(int row, String error) {
+        return new ItemImportEvent("error", row, error, null, null, null, null, null);
+    }
+
+    public static ItemImportEvent unknown(int row) {
+        return new ItemImportEvent("unknown", row, "The server answer was lost, the item may have been created",
+                null, null, null, null, null);
+    }
+
+    public static ItemImportEvent progress(int rows, int created, int failed, int unknown, boolean done) {
+        return new ItemImportEvent("progress", null, null, rows, created, failed, unknown, done);
+    }
+}
@@ -1,38 +1,34 @@
 package ru.practicum.shareit.itemRequest;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.itemRequest.dto.ItemRequestInput;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
+    private static final List<String> INVALIDATED_PREFIXES = List.of("/requests", "/summary");
 
-    @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public ItemRequestClient(ServerTransport transport, ResponseCache responseCache) {
+        super(transport, responseCache, API_PREFIX, INVALIDATED_PREFIXES);
     }
 
-    public ResponseEntity<Object> createRequest(ItemRequestInput itemRequestInput, long user) {
+    public Mono<ResponseEntity<Object>> createRequest(ItemRequestInput itemRequestInput, long user) {
         return post("", user, itemRequestInput);
     }
 
-    public ResponseEntity<Object> findUserRequests(long userId) {
+    public Mono<ResponseEntity<Object>> findUserRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> findAllRequests(int from, int size, long userId) {
+    public Mono<ResponseEntity<Object>> findAllRequests(int from, int size, long userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -40,7 +36,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all??from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long requestId, long userId) {
+    public Mono<ResponseEntity<Object>> getById(long requestId, long userId) {
         Map<String, Object> parameters = Map.of(
                 "id", requestId
         );
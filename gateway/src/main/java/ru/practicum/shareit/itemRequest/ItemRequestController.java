@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.itemRequest.dto.ItemRequestInput;
 import ru.practicum.shareit.utils.ConstantUtils;
 
@@ -25,25 +26,25 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@Valid @RequestBody ItemRequestInput itemRequestInput,
-                                                @RequestHeader(ConstantUtils.USER_ID) long user) {
+    public Mono<ResponseEntity<Object>> createRequest(@Valid @RequestBody ItemRequestInput itemRequestInput,
+                                                      @RequestHeader(ConstantUtils.USER_ID) long user) {
         return itemRequestClient.createRequest(itemRequestInput, user);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findUserRequests(@RequestHeader(ConstantUtils.USER_ID) long user) {
+    public Mono<ResponseEntity<Object>> findUserRequests(@RequestHeader(ConstantUtils.USER_ID) long user) {
         return itemRequestClient.findUserRequests(user);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
-                                                 @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
-                                                 @RequestHeader(ConstantUtils.USER_ID) long user) {
+    public Mono<ResponseEntity<Object>> getAllRequests(@PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
+                                                       @PositiveOrZero @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
+                                                       @RequestHeader(ConstantUtils.USER_ID) long user) {
         return itemRequestClient.findAllRequests(from, size, user);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable long id, @RequestHeader(ConstantUtils.USER_ID) long user) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable long id, @RequestHeader(ConstantUtils.USER_ID) long user) {
         return itemRequestClient.getById(id, user);
     }
 }
\ No newline at end of file
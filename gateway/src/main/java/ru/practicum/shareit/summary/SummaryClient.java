@@ -0,0 +1,27 @@
+package ru.practicum.shareit.summary;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SummaryClient extends BaseClient {
+    private static final String API_PREFIX = "/summary";
+
+    public SummaryClient(ServerTransport transport, ResponseCache responseCache) {
+        super(transport, responseCache, API_PREFIX, List.of());
+    }
+
+    public Mono<ResponseEntity<Object>> getOwnerSummary(long owner, int top) {
+        Map<String, Object> parameters = Map.of(
+                "top", top
+        );
+        return get("?top={top}", owner, parameters);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exceptions.LockedException;
+import ru.practicum.shareit.utils.ConstantUtils;
+
+@Slf4j
+@RestController
+@RequestMapping("/summary")
+@RequiredArgsConstructor
+public class SummaryController {
+    private static final int MAX_TOP = 20;
+
+    private final SummaryClient summaryClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getOwnerSummary(@RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_TOP) int top,
+                                                        @RequestHeader(ConstantUtils.USER_ID) long owner) {
+        log.info("Requested summary of user {}", owner);
+        if (top <= 0 || top > MAX_TOP) {
+            throw new LockedException("top must be from 1 to " + MAX_TOP);
+        }
+        return summaryClient.getOwnerSummary(owner, top);
+    }
+}
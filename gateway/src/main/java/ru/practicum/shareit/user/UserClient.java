@@ -1,55 +1,51 @@
 package ru.practicum.shareit.user;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
+    private static final List<String> INVALIDATED_PREFIXES = List.of("/");
 
-    @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public UserClient(ServerTransport transport, ResponseCache responseCache) {
+        super(transport, responseCache, API_PREFIX, INVALIDATED_PREFIXES);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(UserDto userDto, long userId) {
+    public Mono<ResponseEntity<Object>> updateUser(UserDto userDto, long userId) {
         Map<String, Object> parameters = Map.of(
                 "userId", userId
         );
         return patch("/{userId}", userId, parameters, userDto);
     }
 
-    public ResponseEntity<Object> deleteUserById(long userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(long userId) {
         Map<String, Object> parameters = Map.of(
                 "userId", userId
         );
         return delete("/{userId}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(long userId) {
         Map<String, Object> parameters = Map.of(
                 "userId", userId
         );
         return get("/{userId}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 }
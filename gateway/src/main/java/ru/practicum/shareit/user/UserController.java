@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.utils.Marker;
 
@@ -24,31 +25,31 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@RequestBody @Validated(Marker.OnCreate.class) UserDto user) {
+    public Mono<ResponseEntity<Object>> createUser(@RequestBody @Validated(Marker.OnCreate.class) UserDto user) {
         log.info("Requested creating user");
         return userClient.createUser(user);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@RequestBody @Validated(Marker.OnUpdate.class) UserDto user, @PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> updateUser(@RequestBody @Validated(Marker.OnUpdate.class) UserDto user, @PathVariable long userId) {
         log.info("Requested updating user with id {}", userId);
         return userClient.updateUser(user, userId);
     }
 
     @DeleteMapping("{userId}")
-    public ResponseEntity<Object> deleteUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable long userId) {
         log.info("Requested deleting user with id {}", userId);
         return userClient.deleteUserById(userId);
     }
 
     @GetMapping("{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable long userId) {
         log.info("Requested user with id {}", userId);
         return userClient.getUserById(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         log.info("Requested all users");
         return userClient.getUsers();
     }
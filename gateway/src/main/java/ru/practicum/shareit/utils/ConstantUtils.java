@@ -4,4 +4,5 @@ public class ConstantUtils {
     public static final String USER_ID = "X-Sharer-User-Id";
     public static final String DEFAULT_SIZE = "20";
     public static final String DEFAULT_FROM = "0";
+    public static final String DEFAULT_TOP = "5";
 }
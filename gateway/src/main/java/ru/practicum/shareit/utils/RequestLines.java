@@ -0,0 +1,15 @@
+package ru.practicum.shareit.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds the request body to a {@code Flux<String>} of its lines, read as the handler consumes
+ * them instead of being buffered whole.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestLines {
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stands in for the shareit server: answers each path with a fixed JSON body and records the requests.
+ * A path answered with an ETag is answered 304 without a body when the request's If-None-Match holds it.
+ */
+public class FakeShareItServer {
+    private final HttpServer server;
+    private final Map<String, String> answers = new ConcurrentHashMap<>();
+    private final Map<String, String> eTags = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    public FakeShareItServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/", exchange -> {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+            exchange.getRequestBody().readAllBytes();
+            String answer = answers.get(exchange.getRequestURI().getPath());
+            String eTag = eTags.get(exchange.getRequestURI().getPath());
+            if (eTag != null) {
+                exchange.getResponseHeaders().set("ETag", eTag);
+                if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+            }
+            byte[] body = (answer != null ? answer : "{\"error\":\"Not found\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(answer != null ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void answer(String path, String body) {
+        answers.put(path, body);
+    }
+
+    public void answer(String path, String body, String eTag) {
+        answers.put(path, body);
+        eTags.put(path, eTag);
+    }
+
+    public List<String> requests() {
+        return requests;
+    }
+
+    public void reset() {
+        answers.clear();
+        eTags.clear();
+        requests.clear();
+    }
+}
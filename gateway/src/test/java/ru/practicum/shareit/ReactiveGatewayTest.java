@@ -0,0 +1,171 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.main.web-application-type=reactive", "shareit-server.response-cache.max-entry-bytes=1KB"})
+class ReactiveGatewayTest {
+    private static final FakeShareItServer SERVER = new FakeShareItServer();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @BeforeEach
+    void prepare() {
+        SERVER.reset();
+    }
+
+    @Test
+    void getItemRelaysServerAnswer() {
+        SERVER.answer("/items/1", "{\"id\":1,\"name\":\"name\"}");
+
+        webTestClient.get().uri("/items/1").header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"id\":1,\"name\":\"name\"}");
+
+        assertEquals(List.of("GET /items/1"), SERVER.requests());
+    }
+
+    @Test
+    void getItemRelaysServerError() {
+        webTestClient.get().uri("/items/2").header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().json("{\"error\":\"Not found\"}");
+    }
+
+    @Test
+    void getItemTwiceAnswersSecondFromCache() {
+        SERVER.answer("/items/3", "{\"id\":3,\"name\":\"name\"}");
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get().uri("/items/3").header("X-Sharer-User-Id", "2")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().json("{\"id\":3,\"name\":\"name\"}");
+        }
+
+        assertEquals(List.of("GET /items/3"), SERVER.requests());
+    }
+
+    @Test
+    void getItemAfterUpdateAsksServerAgain() {
+        SERVER.answer("/items/4", "{\"id\":4,\"name\":\"name\"}");
+
+        webTestClient.get().uri("/items/4").header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.patch().uri("/items/4").header("X-Sharer-User-Id", "2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"name\"}")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/items/4").header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk();
+
+        assertEquals(List.of("GET /items/4", "PATCH /items/4", "GET /items/4"), SERVER.requests());
+    }
+
+    @Test
+    void getLargeItemIsRelayedButNotCached() {
+        String item = "{\"id\":5,\"description\":\"" + "a".repeat(300 * 1024) + "\"}";
+        SERVER.answer("/items/5", item);
+
+        WebTestClient largeBodyClient = webTestClient.mutate()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(1024 * 1024))
+                .build();
+        for (int i = 0; i < 2; i++) {
+            String body = largeBodyClient.get().uri("/items/5").header("X-Sharer-User-Id", "2")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class)
+                    .returnResult()
+                    .getResponseBody();
+            assertEquals(item, body);
+        }
+
+        assertEquals(List.of("GET /items/5", "GET /items/5"), SERVER.requests());
+    }
+
+    @Test
+    void getItemNotModifiedReleasesServerConnection() {
+        SERVER.answer("/items/6", "{\"id\":6,\"name\":\"name\"}", "\"v6\"");
+
+        webTestClient.get().uri("/items/6").header("X-Sharer-User-Id", "2").header("If-None-Match", "\"v6\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "\"v6\"")
+                .expectBody().isEmpty();
+
+        assertEquals(0, leasedServerConnections());
+        assertEquals(List.of("GET /items/6"), SERVER.requests());
+    }
+
+    @Test
+    void getCachedItemNotModifiedIsAnsweredByGateway() {
+        SERVER.answer("/items/7", "{\"id\":7,\"name\":\"name\"}", "\"v7\"");
+
+        webTestClient.get().uri("/items/7").header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"v7\"");
+        webTestClient.get().uri("/items/7").header("X-Sharer-User-Id", "2").header("If-None-Match", "\"v7\"")
+                .exchange()
+                .expectStatus().isNotModified();
+
+        assertEquals(0, leasedServerConnections());
+        assertEquals(List.of("GET /items/7"), SERVER.requests());
+    }
+
+    @Test
+    void importItemsReadsRequestLines() {
+        SERVER.answer("/items/batch", "[{\"status\":200,\"id\":1}]");
+
+        webTestClient.post().uri("/items/import").header("X-Sharer-User-Id", "2")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}\n"
+                + "{\"name\":\"Saw\"}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"type\":\"error\",\"row\":2,\"error\":\"available must not be null; description must not be blank\"}\n"
+                + "{\"type\":\"progress\",\"rows\":2,\"created\":1,\"failed\":1,\"unknown\":0,\"done\":false}\n"
+                + "{\"type\":\"progress\",\"rows\":2,\"created\":1,\"failed\":1,\"unknown\":0,\"done\":true}\n");
+        assertEquals(List.of("POST /items/batch"), SERVER.requests());
+    }
+
+    /**
+     * The connection goes back to the pool on an event loop after the gateway answer completes, so
+     * the gauge is given a moment to settle.
+     */
+    @SneakyThrows
+    private static double leasedServerConnections() {
+        Gauge active = Metrics.globalRegistry.find("reactor.netty.connection.provider.active.connections")
+                .tag("name", "shareit-server")
+                .gauge();
+        for (int i = 0; i < 50 && active != null && active.value() > 0; i++) {
+            Thread.sleep(20);
+        }
+        return active != null ? active.value() : 0;
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "shareit-server.response-cache.max-entry-bytes=1KB")
+@AutoConfigureMockMvc
+class ServletGatewayTest {
+    private static final FakeShareItServer SERVER = new FakeShareItServer();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PoolingHttpClientConnectionManager serverConnectionManager;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @BeforeEach
+    void prepare() {
+        SERVER.reset();
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemRelaysServerAnswerOnRequestThread() {
+        SERVER.answer("/items/1", "{\"id\":1,\"name\":\"name\"}");
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/items/1").header("X-Sharer-User-Id", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json("{\"id\":1,\"name\":\"name\"}"))
+                .andReturn();
+
+        assertNull(result.getRequest().getAsyncContext());
+        assertEquals(List.of("GET /items/1"), SERVER.requests());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemRelaysServerError() {
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/2").header("X-Sharer-User-Id", "2"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.content().json("{\"error\":\"Not found\"}"));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemTwiceAnswersSecondFromCache() {
+        SERVER.answer("/items/3", "{\"id\":3,\"name\":\"name\"}");
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/items/3").header("X-Sharer-User-Id", "2"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.content().json("{\"id\":3,\"name\":\"name\"}"));
+        }
+
+        assertEquals(List.of("GET /items/3"), SERVER.requests());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemAfterUpdateAsksServerAgain() {
+        SERVER.answer("/items/4", "{\"id\":4,\"name\":\"name\"}");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/4").header("X-Sharer-User-Id", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.patch("/items/4").header("X-Sharer-User-Id", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"name\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/4").header("X-Sharer-User-Id", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertEquals(List.of("GET /items/4", "PATCH /items/4", "GET /items/4"), SERVER.requests());
+    }
+
+    @SneakyThrows
+    @Test
+    void getLargeItemIsRelayedButNotCached() {
+        String item = "{\"id\":5,\"description\":\"" + "a".repeat(300 * 1024) + "\"}";
+        SERVER.answer("/items/5", item);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/items/5").header("X-Sharer-User-Id", "2"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.content().string(item));
+        }
+
+        assertEquals(List.of("GET /items/5", "GET /items/5"), SERVER.requests());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemNotModifiedReleasesServerConnection() {
+        SERVER.answer("/items/6", "{\"id\":6,\"name\":\"name\"}", "\"v6\"");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/6").header("X-Sharer-User-Id", "2")
+                        .header("If-None-Match", "\"v6\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"v6\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        assertEquals(0, serverConnectionManager.getTotalStats().getLeased());
+        assertEquals(List.of("GET /items/6"), SERVER.requests());
+    }
+
+    @SneakyThrows
+    @Test
+    void getCachedItemNotModifiedIsAnsweredByGateway() {
+        SERVER.answer("/items/7", "{\"id\":7,\"name\":\"name\"}", "\"v7\"");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/7").header("X-Sharer-User-Id", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"v7\""));
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/7").header("X-Sharer-User-Id", "2")
+                        .header("If-None-Match", "\"v7\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        assertEquals(0, serverConnectionManager.getTotalStats().getLeased());
+        assertEquals(List.of("GET /items/7"), SERVER.requests());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItemsReadsRequestLines() {
+        SERVER.answer("/items/batch", "[{\"status\":200,\"id\":1}]");
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.post("/items/import").header("X-Sharer-User-Id", "2")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}\n"
+                + "{\"name\":\"Saw\"}\n"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("{\"type\":\"error\",\"row\":2,\"error\":\"available must not be null; description must not be blank\"}\n"
+                + "{\"type\":\"progress\",\"rows\":2,\"created\":1,\"failed\":1,\"unknown\":0,\"done\":false}\n"
+                + "{\"type\":\"progress\",\"rows\":2,\"created\":1,\"failed\":1,\"unknown\":0,\"done\":true}\n"));
+        assertEquals(List.of("POST /items/batch"), SERVER.requests());
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheTest {
+    private final ResponseCache cache = new ResponseCache(properties(), new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void getCopiedAnswerFromCache() {
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getNotCopiedAnswerAgain() {
+        get("/items", "/items/1", copy -> { });
+        get("/items", "/items/1", copy -> { });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getAfterInvalidateOfOwnPrefix() {
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+        cache.invalidate(List.of("/bookings", "/items"));
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getAfterInvalidateOfOtherPrefixFromCache() {
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+        cache.invalidate(List.of("/requests"));
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getAfterInvalidateOfAllPrefixes() {
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+        cache.invalidate(List.of("/"));
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getDoesNotKeepAnswerCopiedAfterInvalidate() {
+        get("/items", "/items/1", copy -> {
+            cache.invalidate(List.of("/items"));
+            copy.accept(ResponseEntity.ok("{}".getBytes()));
+        });
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getDoesNotKeepErrorAnswer() {
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.notFound().build()));
+        get("/items", "/items/1", copy -> copy.accept(ResponseEntity.ok("{}".getBytes())));
+
+        assertEquals(2, loads.get());
+    }
+
+    private void get(String prefix, String uri, Consumer<Consumer<ResponseEntity<byte[]>>> server) {
+        cache.get(prefix, uri, 1L, (maxCopySize, onCopy) -> {
+            assertEquals(1024, maxCopySize);
+            loads.incrementAndGet();
+            server.accept(onCopy);
+            return Mono.just(ResponseEntity.ok().build());
+        }).block();
+    }
+
+    private static ResponseCacheProperties properties() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxEntryBytes(DataSize.ofKilobytes(1));
+        return properties;
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.ItemImportEvent;
+import ru.practicum.shareit.item.dto.ItemIncome;
+
+import javax.validation.Validation;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImporterTest {
+    private static final List<String> HEADER = List.of("name", "description", "available", "requestId");
+
+    @Mock
+    private ItemClient itemClient;
+
+    private ItemImporter itemImporter() {
+        return new ItemImporter(itemClient, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void splitCsvPlain() {
+        assertEquals(List.of("Drill", "", "true"), ItemImporter.splitCsv("Drill,,true"));
+    }
+
+    @Test
+    void splitCsvQuoted() {
+        assertEquals(List.of("Drill, cordless", "a \"good\" one", "true"),
+                ItemImporter.splitCsv("\"Drill, cordless\",\"a \"\"good\"\" one\",true"));
+    }
+
+    @Test
+    void parseCsvRowTrimsValues() {
+        var row = itemImporter().parseCsvRow(1, HEADER, List.of(" Drill ", "Cordless", " true", " 7 "));
+
+        assertNull(row.error);
+        assertEquals(2, row.number);
+        assertEquals("Drill", row.itemIncome.getName());
+        assertEquals(true, row.itemIncome.getAvailable());
+        assertEquals(7L, row.itemIncome.getRequestId());
+    }
+
+    @Test
+    void parseCsvRowRejectsWrongValues() {
+        var itemImporter = itemImporter();
+
+        assertEquals("Expected 4 values but found 3",
+                itemImporter.parseCsvRow(1, HEADER, List.of("Drill", "Cordless", "true")).error);
+        assertEquals("available must be true or false",
+                itemImporter.parseCsvRow(1, HEADER, List.of("Drill", "Cordless", "yes", "")).error);
+        assertEquals("requestId must be a number",
+                itemImporter.parseCsvRow(1, HEADER, List.of("Drill", "Cordless", "true", "seven")).error);
+        assertEquals("available must not be null",
+                itemImporter.parseCsvRow(1, HEADER, List.of("Drill", "Cordless", "", "")).error);
+    }
+
+    @Test
+    void serverErrorsPerEntry() {
+        var errors = itemImporter().serverErrors(ResponseEntity.ok(bytes(
+                "[{\"status\":200,\"id\":1},{\"status\":404,\"error\":\"No such request was found\"}]")), 2);
+
+        assertEquals(Arrays.asList(null, "No such request was found"), errors);
+    }
+
+    @Test
+    void serverErrorsRejectedBatch() {
+        var errors = itemImporter().serverErrors(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(bytes("{\"error\":\"No such owner was found\"}")), 2);
+
+        assertEquals(List.of("No such owner was found", "No such owner was found"), errors);
+    }
+
+    @Test
+    void serverErrorsUnreadableAnswerIsUnknown() {
+        assertNull(itemImporter().serverErrors(ResponseEntity.ok(bytes("[{\"status\":200,\"id\":1}]")), 2));
+        assertNull(itemImporter().serverErrors(ResponseEntity.ok(bytes("<html>")), 1));
+    }
+
+    @Test
+    void importNdjson() {
+        Mockito.when(itemClient.createItems(Mockito.anyList(), Mockito.eq(1L)))
+                .thenReturn(Mono.just(ResponseEntity.ok(bytes("[{\"status\":200,\"id\":1},{\"status\":200,\"id\":2}]"))));
+
+        var events = itemImporter().importItems(Flux.just(
+                "{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}",
+                "",
+                "{\"name\":",
+                "{\"name\":\"Saw\",\"description\":\"Hand\",\"available\":false}"), MediaType.APPLICATION_NDJSON, 1L)
+                .collectList()
+                .block();
+
+        assertEquals(List.of(
+                ItemImportEvent.error(3, "Malformed JSON"),
+                ItemImportEvent.progress(3, 2, 1, 0, false),
+                ItemImportEvent.progress(3, 2, 1, 0, true)), events);
+        Mockito.verify(itemClient).createItems(Mockito.argThat(items -> items.size() == 2
+                && items.get(0).getName().equals("Drill") && items.get(1).getName().equals("Saw")), Mockito.eq(1L));
+    }
+
+    @Test
+    void importCsv() {
+        Mockito.when(itemClient.createItems(Mockito.anyList(), Mockito.eq(1L)))
+                .thenReturn(Mono.just(ResponseEntity.ok(bytes("[{\"status\":200,\"id\":1},{\"status\":404,\"error\":\"No such request was found\"}]"))));
+
+        var events = itemImporter().importItems(Flux.just(
+                "name, description, available, requestId",
+                "\"Drill, cordless\",Cordless, true,",
+                "Saw,,true,",
+                "Hammer,Heavy,TRUE,9"), MediaType.valueOf("text/csv"), 1L)
+                .collectList()
+                .block();
+
+        assertEquals(List.of(
+                ItemImportEvent.error(3, "description must not be blank"),
+                ItemImportEvent.error(4, "No such request was found"),
+                ItemImportEvent.progress(3, 1, 2, 0, false),
+                ItemImportEvent.progress(3, 1, 2, 0, true)), events);
+        Mockito.verify(itemClient).createItems(Mockito.argThat(items -> items.size() == 2
+                && items.get(0).getName().equals("Drill, cordless") && items.get(1).getRequestId() == 9L), Mockito.eq(1L));
+    }
+
+    @Test
+    void importCsvWithoutRequiredColumns() {
+        var events = itemImporter().importItems(Flux.just("name,description", "Drill,Cordless"),
+                        MediaType.valueOf("text/csv"), 1L)
+                .collectList()
+                .block();
+
+        assertEquals(List.of(
+                ItemImportEvent.error(1, "CSV header must name the columns [name, description, available]"),
+                ItemImportEvent.progress(1, 0, 1, 0, false),
+                ItemImportEvent.progress(1, 0, 1, 0, true)), events);
+    }
+
+    @Test
+    void importLostAnswerIsUnknown() {
+        Mockito.when(itemClient.createItems(Mockito.anyList(), Mockito.eq(1L)))
+                .thenReturn(Mono.error(new TimeoutException()));
+
+        var events = itemImporter().importItems(Flux.just(
+                "{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}",
+                "{\"name\":\"Saw\"}"), MediaType.APPLICATION_NDJSON, 1L)
+                .collectList()
+                .block();
+
+        assertEquals(List.of(
+                ItemImportEvent.unknown(1),
+                ItemImportEvent.error(2, "available must not be null; description must not be blank"),
+                ItemImportEvent.progress(2, 0, 1, 1, false),
+                ItemImportEvent.progress(2, 0, 1, 1, true)), events);
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
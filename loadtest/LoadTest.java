@@ -0,0 +1,99 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Closed-loop load generator: every client thread sends the next request as soon as the previous one is answered.
+ * Run with {@code java LoadTest.java <url> <concurrency> <seconds> [userId]}.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int concurrency = Integer.parseInt(args[1]);
+        long seconds = Long.parseLong(args[2]);
+        String userId = args.length > 3 ? args[3] : "1";
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", userId)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        long warmUpEnd = System.nanoTime() + Duration.ofSeconds(Math.min(5, seconds)).toNanos();
+        long end = warmUpEnd + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            latencies[i] = new long[1024];
+            int worker = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        String error;
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            error = status == 200 ? null : "HTTP " + status;
+                        } catch (Exception e) {
+                            error = e.toString();
+                        }
+                        long finished = System.nanoTime();
+                        if (now < warmUpEnd || finished > end) {
+                            continue;
+                        }
+                        if (error != null) {
+                            errors.incrementAndGet();
+                            firstError.compareAndSet(null, error);
+                        } else {
+                            if (counts[worker] == latencies[worker].length) {
+                                latencies[worker] = Arrays.copyOf(latencies[worker], counts[worker] * 2);
+                            }
+                            latencies[worker][counts[worker]++] = finished - now;
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int i = 0; i < concurrency; i++) {
+            System.arraycopy(latencies[i], 0, all, offset, counts[i]);
+            offset += counts[i];
+        }
+        Arrays.sort(all);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                total, errors.get(), total / (double) seconds,
+                percentile(all, 50), percentile(all, 99), total == 0 ? 0 : all[total - 1] / 1e6);
+        if (firstError.get() != null) {
+            System.out.println("first error: " + firstError.get());
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,50 @@
+#!/bin/bash
+# Compares gateway request handling on platform threads and on virtual threads (profile "virtual-threads";
+# the server has no such mode and runs on its worker pool in both runs).
+# Starts the server on H2 and the gateway, seeds one user with one item and loads GET /items/{id}
+# through the gateway. Needs a Java 21 runtime and jars built with: mvn -B package -DskipTests
+#
+# usage: loadtest/run.sh [concurrency] [seconds]
+set -e
+cd "$(dirname "$0")/.."
+CONCURRENCY=${1:-400}
+SECONDS_PER_RUN=${2:-30}
+QUIET="--logging.level.root=WARN --logging.level.org.springframework.transaction.interceptor=WARN \
+--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN \
+--logging.level.org.springframework.web.client.RestTemplate=WARN"
+
+wait_for() {
+    for _ in $(seq 120); do
+        curl -s -o /dev/null "$1" && return 0
+        sleep 1
+    done
+    echo "$1 did not start" >&2
+    return 1
+}
+
+run() {
+    local name=$1 profiles=$2
+    java -jar server/target/shareit-server-0.0.1-SNAPSHOT.jar --spring.profiles.active=ci${profiles:+,$profiles} $QUIET \
+        > "target/loadtest-server-$name.log" 2>&1 &
+    local server=$!
+    java -jar gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar ${profiles:+--spring.profiles.active=$profiles} $QUIET \
+        > "target/loadtest-gateway-$name.log" 2>&1 &
+    local gateway=$!
+    trap 'kill $server $gateway 2>/dev/null' EXIT
+    wait_for http://localhost:9090/users
+    wait_for http://localhost:8080/actuator/health
+
+    curl -s -o /dev/null -X POST localhost:8080/users -H 'Content-Type: application/json' \
+        -d '{"name":"load","email":"load@test.com"}'
+    curl -s -o /dev/null -X POST localhost:8080/items -H 'Content-Type: application/json' -H 'X-Sharer-User-Id: 1' \
+        -d '{"name":"drill","description":"load test item","available":true}'
+
+    echo "$name: $(java loadtest/LoadTest.java http://localhost:8080/items/1 "$CONCURRENCY" "$SECONDS_PER_RUN")"
+    kill $server $gateway
+    wait $server $gateway 2>/dev/null || true
+    trap - EXIT
+}
+
+mkdir -p target
+run platform ""
+run virtual virtual-threads
@@ -0,0 +1,44 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * The NDJSON exports write from a {@code StreamingResponseBody} while holding a read-only transaction,
+ * and so a pooled connection, for as long as the client takes to download. They run on a pool of their
+ * own, sized well below the connection pool, so slow downloads cannot starve the other endpoints; a
+ * full pool answers 503. An export still running after the timeout is interrupted, which rolls its
+ * transaction back and cuts the response.
+ * <p>
+ * The pool is owned here rather than exposed as a bean, so it does not replace Boot's default task executor.
+ */
+@Configuration
+@EnableConfigurationProperties(ExportProperties.class)
+public class AsyncSupportConfig implements WebMvcConfigurer, DisposableBean {
+    private final ThreadPoolTaskExecutor exportExecutor = new ThreadPoolTaskExecutor();
+    private final ExportProperties properties;
+
+    public AsyncSupportConfig(ExportProperties properties) {
+        this.properties = properties;
+        exportExecutor.setCorePoolSize(properties.getThreads());
+        exportExecutor.setMaxPoolSize(properties.getThreads());
+        exportExecutor.setQueueCapacity(properties.getQueueCapacity());
+        exportExecutor.setThreadNamePrefix("export-");
+        exportExecutor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor);
+        configurer.setDefaultTimeout(properties.getTimeout().toMillis());
+    }
+
+    @Override
+    public void destroy() {
+        exportExecutor.shutdown();
+    }
+}
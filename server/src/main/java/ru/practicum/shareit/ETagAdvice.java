@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.practicum.shareit.utils.Versioned;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Adds a strong ETag to GET answers built from {@link Versioned} representations and answers
+ * 304 Not Modified without a body when the client already holds that version.
+ */
+@RestControllerAdvice
+public class ETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(@Nullable Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET
+                || !(request instanceof ServletServerHttpRequest) || !(response instanceof ServletServerHttpResponse)) {
+            return body;
+        }
+        String versionTag = versionTag(body);
+        if (versionTag == null) {
+            return body;
+        }
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(versionTag.getBytes(StandardCharsets.UTF_8)) + "\"";
+        ServletWebRequest webRequest = new ServletWebRequest(((ServletServerHttpRequest) request).getServletRequest(),
+                ((ServletServerHttpResponse) response).getServletResponse());
+        return webRequest.checkNotModified(eTag) ? null : body;
+    }
+
+    @Nullable
+    private static String versionTag(@Nullable Object body) {
+        if (body instanceof Versioned) {
+            return ((Versioned) body).versionTag();
+        }
+        if (body instanceof Collection && ((Collection<?>) body).stream().allMatch(Versioned.class::isInstance)) {
+            return ((Collection<?>) body).stream()
+                    .map(it -> ((Versioned) it).versionTag())
+                    .collect(Collectors.joining(",", "[", "]"));
+        }
+        return null;
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -9,6 +13,7 @@ import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.LockedException;
 import ru.practicum.shareit.exceptions.NoAuthorizationException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.UnavailableException;
 import ru.practicum.shareit.exceptions.ValidationException;
 
 import java.util.Map;
@@ -17,7 +22,7 @@ import java.util.Map;
 @RestControllerAdvice
 public class ErrorHandler {
 
-    @ExceptionHandler(ConflictException.class)
+    @ExceptionHandler({ConflictException.class, OptimisticLockingFailureException.class})
     @ResponseStatus(HttpStatus.CONFLICT)
     public Map<String, String> conflictException(final Exception e) {
         log.error(e.getMessage(), e);
@@ -44,5 +49,23 @@ public class ErrorHandler {
         log.error(e.getMessage(), e);
         return Map.of("error", e.getMessage());
     }
-}
 
+    @ExceptionHandler(UnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> unavailableException(final Exception e) {
+        log.error(e.getMessage(), e);
+        return Map.of("error", e.getMessage());
+    }
+
+    /**
+     * The export or summary pool is full. An export has already set its NDJSON content type on the
+     * response, so the error states its own.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, String>> taskRejectedException(final Exception e) {
+        log.error(e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", "Server is busy, try again later"));
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.export")
+public class ExportProperties {
+    private int threads = 4;
+    private int queueCapacity = 16;
+    private Duration timeout = Duration.ofMinutes(5);
+}
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -11,12 +14,16 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.model.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.model.dto.BookingDto;
 import ru.practicum.shareit.booking.model.dto.BookingIncome;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.utils.ConstantUtils;
 import ru.practicum.shareit.utils.Marker;
+import ru.practicum.shareit.utils.NdjsonBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,6 +31,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Validated(Marker.OnCreate.class)
@@ -31,6 +39,12 @@ public class BookingController {
         return bookingService.addBooking(bookingIncome, user);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResult> addBookings(@RequestBody List<BookingIncome> bookingIncomes,
+                                                @RequestHeader(ConstantUtils.USER_ID) long user) {
+        return bookingService.addBookings(bookingIncomes, user);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@PathVariable long bookingId, @RequestParam boolean approved,
                                      @RequestHeader(ConstantUtils.USER_ID) long user) {
@@ -46,15 +60,37 @@ public class BookingController {
     public List<BookingDto> getAllBookings(@RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
                                            @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
                                            @RequestHeader(ConstantUtils.USER_ID) long user,
-                                           @RequestParam(defaultValue = "ALL") String state) {
+                                           @RequestParam(defaultValue = "ALL") String state,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                           @RequestParam(required = false) Long afterId) {
+        if (afterStart != null || afterId != null) {
+            return bookingService.getAllUserBookingsAfter(afterStart, afterId, size, user, state);
+        }
         return bookingService.getAllUserBookings(from, size, user, state);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader(ConstantUtils.USER_ID) long user) {
+        bookingService.checkUserExists(user);
+        return NdjsonBody.<BookingDto>of(objectMapper, sink -> bookingService.exportUserBookings(user, sink));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader(ConstantUtils.USER_ID) long user) {
+        bookingService.checkUserExists(user);
+        return NdjsonBody.<BookingDto>of(objectMapper, sink -> bookingService.exportUsersItemsBookings(user, sink));
+    }
+
     @GetMapping("/owner")
     public List<BookingDto> getAllBookingsByOwner(@RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
                                                   @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
                                                   @RequestHeader(ConstantUtils.USER_ID) long user,
-                                                  @RequestParam(defaultValue = "ALL") String state) {
+                                                  @RequestParam(defaultValue = "ALL") String state,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                  @RequestParam(required = false) Long afterId) {
+        if (afterStart != null || afterId != null) {
+            return bookingService.getAllUsersItemsBookingsAfter(afterStart, afterId, size, user, state);
+        }
         return bookingService.getAllUsersItemsBookings(from, size, user, state);
     }
 }
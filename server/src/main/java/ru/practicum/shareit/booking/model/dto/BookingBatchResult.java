@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one entry of {@code POST /bookings/batch}: the created {@code booking} with status 200,
+ * otherwise the status and {@code error} that {@code POST /bookings} answers for that entry.
+ */
+@Data
+@AllArgsConstructor
+public class BookingBatchResult {
+    private int status;
+    private BookingDto booking;
+    private String error;
+}
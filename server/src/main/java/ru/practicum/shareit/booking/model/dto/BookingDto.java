@@ -1,18 +1,27 @@
 package ru.practicum.shareit.booking.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.dto.ItemShort;
 import ru.practicum.shareit.user.model.dto.UserId;
+import ru.practicum.shareit.utils.Versioned;
 
 import java.time.LocalDateTime;
 
 @Data
-public class BookingDto {
+public class BookingDto implements Versioned {
     private long id;
     private UserId booker;
     private ItemShort item;
     private LocalDateTime start;
     private LocalDateTime end;
     private Status status;
+    @JsonIgnore
+    private long version;
+
+    @Override
+    public String versionTag() {
+        return "b" + id + "." + version + ":i" + (item == null ? 0 : item.getId() + "." + item.getVersion());
+    }
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.model.dto;
+
+public interface BookingForItemView {
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.model.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingIntervalView {
+    Long getItemId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -1,50 +1,127 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.model.dto.BookingForItemView;
+import ru.practicum.shareit.booking.model.dto.BookingIntervalView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends PagingAndSortingRepository<Booking, Long> {
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
 
+public interface BookingRepository extends PagingAndSortingRepository<Booking, Long>, BookingSeekRepository {
+
+    @Override
+    @EntityGraph("Booking.item")
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph("Booking.item")
     List<Booking> findByBooker(User booker, Pageable pageable);
 
+    @EntityGraph("Booking.item")
     List<Booking> findByBookerAndStartBeforeAndEndAfter(User booker, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph("Booking.item")
     List<Booking> findByBookerAndEndBefore(User booker, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph("Booking.item")
     List<Booking> findByBookerAndStartAfter(User booker, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph("Booking.item")
     List<Booking> findByBookerAndStatus(User booker, Status status, Pageable pageable);
 
 
+    @EntityGraph("Booking.item")
     List<Booking> findByItem_Owner(User owner, Pageable pageable);
 
+    @EntityGraph("Booking.item")
     List<Booking> findByItem_OwnerAndStartBeforeAndEndAfter(User owner, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph("Booking.item")
     List<Booking> findByItem_OwnerAndEndBefore(User owner, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph("Booking.item")
     List<Booking> findByItem_OwnerAndStartAfter(User owner, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph("Booking.item")
     List<Booking> findByItem_OwnerAndStatus(User owner, Status status, Pageable pageable);
 
-    @Query("select case when count(b)> 0 then true else false end " + "from Booking as b " + "where b.booker = ?1 and b.item = ?2 and status = 'APPROVED' and start < ?3")
-    boolean existsAcceptedByBookerAndItemAndTime(User booker, Item item, LocalDateTime time);
+    long countByItem_Owner(User owner);
+
+    long countByItem_OwnerAndStartBeforeAndEndAfter(User owner, LocalDateTime start, LocalDateTime end);
 
-    List<Booking> findByItemInAndStartLessThanEqualAndStatus(Collection<Item> items, LocalDateTime start, Status approved);
+    long countByItem_OwnerAndEndBefore(User owner, LocalDateTime end);
 
-    List<Booking> findByItemInAndStartAfterAndStatus(Collection<Item> items, LocalDateTime start, Status approved);
+    long countByItem_OwnerAndStartAfter(User owner, LocalDateTime start);
 
-    List<Booking> findByItemAndStartLessThanEqualAndStatus(Item item, LocalDateTime start, Status approved);
+    long countByItem_OwnerAndStatus(User owner, Status status);
 
-    List<Booking> findByItemAndStartAfterAndStatus(Item item, LocalDateTime start, Status approved);
+    /**
+     * The whole booking history of the booker, latest first, read through a database cursor
+     * {@code FETCH_SIZE} rows at a time. Must be consumed and closed inside a transaction.
+     */
+    @EntityGraph("Booking.item")
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = "500"))
+    @Query("select b from Booking b where b.booker = ?1 order by b.start desc, b.id desc")
+    Stream<Booking> streamByBooker(User booker);
+
+    @EntityGraph("Booking.item")
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = "500"))
+    @Query("select b from Booking b where b.item.owner = ?1 order by b.start desc, b.id desc")
+    Stream<Booking> streamByItemOwner(User owner);
+
+    /**
+     * Approved bookings of an item never overlap, so only the latest one starting before {@code end}
+     * can overlap a new interval ending at {@code end}: one probe of the (item_id, status, start_time) index.
+     */
+    Optional<Booking> findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(long itemId, Status status, LocalDateTime end);
+
+    @Query("select case when count(b)> 0 then true else false end " + "from Booking as b " + "where b.booker = ?1 and b.item = ?2 and status = 'APPROVED' and start < ?3")
+    boolean existsAcceptedByBookerAndItemAndTime(User booker, Item item, LocalDateTime time);
 
+    @Query(value = "select b.item_id as \"itemId\", b.id as \"id\", b.booker_id as \"bookerId\" from (" +
+            "select item_id, id, booker_id, row_number() over (partition by item_id order by start_time desc, id desc) as rn " +
+            "from bookings where item_id in (?1) and status = 'APPROVED' and start_time <= ?2) b where b.rn = 1",
+            nativeQuery = true)
+    List<BookingForItemView> findLastByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(value = "select b.item_id as \"itemId\", b.id as \"id\", b.booker_id as \"bookerId\" from (" +
+            "select item_id, id, booker_id, row_number() over (partition by item_id order by start_time, id) as rn " +
+            "from bookings where item_id in (?1) and status = 'APPROVED' and start_time > ?2) b where b.rn = 1",
+            nativeQuery = true)
+    List<BookingForItemView> findNextByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select b.item.id as itemId, b.start as start, b.end as end from Booking b where b.status = ?1 and b.end > ?2")
+    List<BookingIntervalView> findIntervalsByStatusAndEndAfter(Status status, LocalDateTime end);
+
+    @Query("select b.item.id as itemId, b.start as start, b.end as end from Booking b " +
+            "where b.item.id in ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    List<BookingIntervalView> findIntervalsByItemIdsAndStatusOverlapping(Collection<Long> itemIds, Status status,
+                                                                         LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Moves the booking to {@code status} only if it is still in {@code expected}, in one statement,
+     * so that of two concurrent status changes exactly one succeeds.
+     *
+     * @return the number of updated rows, 0 when the booking has already left {@code expected}
+     */
+    @Transactional
+    @Modifying
+    @Query("update Booking b set b.status = ?3, b.version = b.version + 1 where b.id = ?1 and b.status = ?2")
+    int updateStatus(long id, Status expected, Status status);
 
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingSeekRepository {
+
+    /**
+     * The first {@code size} bookings matching {@code filter} that come after the ({@code start}, {@code id})
+     * cursor in start desc, id desc order, with their items.
+     * <p>
+     * Booker seeks are served by the (booker_id, start_time, id) index. Owner seeks go through the items
+     * of the owner, as no index spans bookings and items, and sort the owner's bookings.
+     */
+    List<Booking> findAfterCursor(Specification<Booking> filter, LocalDateTime start, long id, int size);
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingSeekRepositoryImpl implements BookingSeekRepository {
+    private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAfterCursor(Specification<Booking> filter, LocalDateTime start, long id, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Predicate afterCursor = cb.or(cb.lessThan(booking.get("start"), start),
+                cb.and(cb.equal(booking.get("start"), start), cb.lessThan(booking.get("id"), id)));
+        query.where(cb.and(filter.toPredicate(booking, query, cb), afterCursor))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph("Booking.item"))
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> bookedBy(User booker) {
+        return (booking, query, cb) -> cb.equal(booking.get("booker"), booker);
+    }
+
+    public static Specification<Booking> ofItemsOf(User owner) {
+        return (booking, query, cb) -> cb.equal(booking.get("item").get("owner"), owner);
+    }
+
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        switch (state) {
+            case CURRENT:
+                return (booking, query, cb) -> cb.and(cb.lessThan(booking.get("start"), now),
+                        cb.greaterThan(booking.get("end"), now));
+            case PAST:
+                return (booking, query, cb) -> cb.lessThan(booking.get("end"), now);
+            case FUTURE:
+                return (booking, query, cb) -> cb.greaterThan(booking.get("start"), now);
+            case WAITING:
+                return (booking, query, cb) -> cb.equal(booking.get("status"), Status.WAITING);
+            case REJECTED:
+                return (booking, query, cb) -> cb.equal(booking.get("status"), Status.REJECTED);
+            default:
+                return (booking, query, cb) -> cb.conjunction();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of approved booking intervals, per item, ordered by start.
+ * Approved bookings of one item never overlap, so the sorted starts are an interval tree:
+ * an interval [start, end) is free if the last booking starting before {@code end} ends by {@code start}.
+ * Their ends are sorted as well, so intervals that have ended are pruned from the head of an item's map
+ * whenever the item is touched, and an item without upcoming intervals is dropped.
+ * <p>
+ * The index holds what this instance has loaded and approved; approvals made by other instances
+ * are only seen after a restart. Bookings use it to reject an overlap fast and still probe the database.
+ */
+@Component
+public class BookingIntervalIndex {
+    private final Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> approved = new ConcurrentHashMap<>();
+
+    public void add(long itemId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime now = LocalDateTime.now();
+        approved.compute(itemId, (id, intervals) -> {
+            NavigableMap<LocalDateTime, LocalDateTime> itemIntervals = intervals != null ? intervals : new ConcurrentSkipListMap<>();
+            pruneEnded(itemIntervals, now);
+            if (end.isAfter(now)) {
+                itemIntervals.put(start, end);
+            }
+            return itemIntervals.isEmpty() ? null : itemIntervals;
+        });
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime now = LocalDateTime.now();
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = approved.get(itemId);
+        if (intervals != null && hasEnded(intervals.firstEntry(), now)) {
+            intervals = approved.computeIfPresent(itemId, (id, itemIntervals) -> {
+                pruneEnded(itemIntervals, now);
+                return itemIntervals.isEmpty() ? null : itemIntervals;
+            });
+        }
+        if (intervals == null) {
+            return true;
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> previous = intervals.lowerEntry(end);
+        return previous == null || !previous.getValue().isAfter(start);
+    }
+
+    int size() {
+        return approved.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static void pruneEnded(NavigableMap<LocalDateTime, LocalDateTime> intervals, LocalDateTime now) {
+        for (Map.Entry<LocalDateTime, LocalDateTime> first = intervals.firstEntry(); hasEnded(first, now);
+             first = intervals.firstEntry()) {
+            intervals.remove(first.getKey());
+        }
+    }
+
+    private static boolean hasEnded(Map.Entry<LocalDateTime, LocalDateTime> interval, LocalDateTime now) {
+        return interval != null && !interval.getValue().isAfter(now);
+    }
+}
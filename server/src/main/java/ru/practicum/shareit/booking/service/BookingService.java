@@ -1,61 +1,136 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.model.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.model.dto.BookingDto;
 import ru.practicum.shareit.booking.model.dto.BookingIncome;
+import ru.practicum.shareit.booking.model.dto.BookingIntervalView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.LockedException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.item.service.ItemMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.model.dto.UserId;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.OffsetPageRequest;
+import ru.practicum.shareit.utils.StripedLocks;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingService {
+    private static final int ITEM_LOCK_STRIPES = 64;
+    private static final int EXPORT_CHUNK = 500;
+    private static final int MAX_BATCH_SIZE = 100;
+    /**
+     * The order of the keyset pages and exports; the id makes it total when bookings share a start,
+     * so offset pages are stable and line up with the cursor pages.
+     */
+    private static final Sort LATEST_FIRST = Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
-    private final ItemMapper itemMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final EntityManager entityManager;
+    /**
+     * Serializes the overlap check and the approval of bookings of one item within this instance;
+     * on PostgreSQL an exclusion constraint also covers other instances.
+     */
+    private final StripedLocks itemLocks = new StripedLocks(ITEM_LOCK_STRIPES);
+
+    @PostConstruct
+    void loadApprovedIntervals() {
+        bookingRepository.findIntervalsByStatusAndEndAfter(Status.APPROVED, LocalDateTime.now())
+                .forEach(it -> bookingIntervalIndex.add(it.getItemId(), it.getStart(), it.getEnd()));
+    }
 
     public BookingDto addBooking(BookingIncome bookingIncome, long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("No such user was found"));
+        User booker = getUser(userId);
         checkValidBookingTime(bookingIncome);
         Item item = itemRepository.findById(bookingIncome.getItemId()).orElseThrow(() -> new NotFoundException("No such item was found"));
-        if (item.getOwner().getId() == userId) {
-            throw new NotFoundException("You can't book your item");
-        }
-        if (!item.getAvailable()) {
-            throw new LockedException("Item not available");
-        }
-        UserId booker = new UserId();
-        booker.setId(userId);
-        BookingDto bookingDto = bookingMapper.fromIncome(bookingIncome, itemMapper.toShort(item), booker, 0);
-        bookingDto.setStatus(Status.WAITING);
-        Booking booking = bookingMapper.fromDTO(bookingDto);
+        Booking booking = newBooking(bookingIncome, item, booker);
         Booking bookingFromDb = bookingRepository.save(booking);
         return bookingMapper.toDTO(bookingFromDb);
     }
 
+    /**
+     * Creates the bookings that pass the same checks as {@link #addBooking}, loading all their items
+     * in one query and inserting them in one transaction with JDBC batching. The approved bookings the
+     * entries could overlap are loaded in one query as well and checked in memory; approval still
+     * rechecks under the item lock, behind the database constraint.
+     * A batch holds from 1 to {@value MAX_BATCH_SIZE} bookings and no null entries.
+     *
+     * @return one result per entry, in the order of {@code bookingIncomes}
+     */
+    public List<BookingBatchResult> addBookings(List<BookingIncome> bookingIncomes, long userId) {
+        checkValidBatch(bookingIncomes);
+        User booker = getUser(userId);
+        Set<Long> itemIds = bookingIncomes.stream().map(BookingIncome::getItemId).collect(Collectors.toSet());
+        Map<Long, Item> items = new HashMap<>();
+        itemRepository.findAllById(itemIds).forEach(item -> items.put(item.getId(), item));
+        Map<Long, List<BookingIntervalView>> approved = findApprovedIntervals(items.keySet(), bookingIncomes);
+
+        BookingBatchResult[] results = new BookingBatchResult[bookingIncomes.size()];
+        List<Booking> bookings = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < bookingIncomes.size(); i++) {
+            BookingIncome bookingIncome = bookingIncomes.get(i);
+            try {
+                checkValidBookingTime(bookingIncome);
+                Item item = items.get(bookingIncome.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("No such item was found");
+                }
+                checkBookable(bookingIncome, item, booker);
+                checkNotBooked(approved.getOrDefault(item.getId(), List.of()), bookingIncome.getStart(), bookingIncome.getEnd());
+                bookings.add(bookingMapper.toModel(bookingIncome, item, booker));
+                positions.add(i);
+            } catch (NotFoundException e) {
+                results[i] = new BookingBatchResult(HttpStatus.NOT_FOUND.value(), null, e.getMessage());
+            } catch (ConflictException e) {
+                results[i] = new BookingBatchResult(HttpStatus.CONFLICT.value(), null, e.getMessage());
+            } catch (LockedException | ValidationException e) {
+                results[i] = new BookingBatchResult(HttpStatus.BAD_REQUEST.value(), null, e.getMessage());
+            }
+        }
+        int saved = 0;
+        for (Booking booking : bookingRepository.saveAll(bookings)) {
+            results[positions.get(saved++)] = new BookingBatchResult(HttpStatus.OK.value(), bookingMapper.toDTO(booking), null);
+        }
+        return List.of(results);
+    }
+
     public BookingDto approveBooking(long bookingId, boolean approved, long userId) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("No such booking was found"));
-        Item item = itemRepository.findById(booking.getItem().getId()).orElseThrow(() -> new NotFoundException("No such item was found"));
-        if (item.getOwner().getId() != userId) {
+        if (booking.getItem().getOwner().getId() != userId) {
             throw new NotFoundException("Request denied, you don't have access rights");
         }
         if (booking.getStatus() != Status.WAITING) {
@@ -64,18 +139,20 @@ public class BookingService {
         Status status;
         if (approved) {
             status = Status.APPROVED;
+            approve(booking);
         } else {
             status = Status.REJECTED;
+            changeStatus(bookingId, status);
         }
-        booking.setStatus(status);
-        bookingRepository.save(booking);
-        return bookingMapper.toDTO(booking);
+        BookingDto bookingDto = bookingMapper.toDTO(booking);
+        bookingDto.setStatus(status);
+        bookingDto.setVersion(booking.getVersion() + 1);
+        return bookingDto;
     }
 
     public BookingDto getBooking(long userId, long bookingId) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("No such booking was found"));
-        Item item = itemRepository.findById(booking.getItem().getId()).orElseThrow(() -> new NotFoundException("No such item was found"));
-        if (booking.getBooker().getId() == userId || item.getOwner().getId() == userId) {
+        if (booking.getBooker().getId() == userId || booking.getItem().getOwner().getId() == userId) {
             return bookingMapper.toDTO(booking);
         } else {
             throw new NotFoundException("Request denied, you don't have access rights");
@@ -86,10 +163,9 @@ public class BookingService {
         if (from < 0 || size < 0) {
             throw new ValidationException("Incorrect page query");
         }
-        User booker = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("No such user was found"));
+        User booker = getUser(userId);
         State state = State.valueOf(stateStr);
-        int page = from % size > 0 ? (from / size) + 1 : from / size;
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "start"));
+        OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size, LATEST_FIRST);
         List<Booking> bookings = List.of();
         switch (state) {
             case CURRENT:
@@ -119,9 +195,9 @@ public class BookingService {
         if (from < 0 || size < 0) {
             throw new ValidationException("Incorrect page query");
         }
-        User user = userRepository.findById(ownerId).orElseThrow(() -> new NotFoundException("No such user was found"));
+        User user = getUser(ownerId);
         State state = State.valueOf(stateStr);
-        PageRequest pageRequest = PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start"));
+        OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size, LATEST_FIRST);
         List<Booking> bookings = List.of();
         switch (state) {
             case CURRENT:
@@ -146,6 +222,178 @@ public class BookingService {
         return bookings.stream().map(bookingMapper::toDTO).collect(Collectors.toList());
     }
 
+    /**
+     * The number of bookings {@link #getAllUsersItemsBookings} pages through for the state.
+     */
+    public long countUsersItemsBookings(long ownerId, String stateStr) {
+        User user = getUser(ownerId);
+        switch (State.valueOf(stateStr)) {
+            case CURRENT:
+                return bookingRepository.countByItem_OwnerAndStartBeforeAndEndAfter(user, LocalDateTime.now(), LocalDateTime.now());
+            case PAST:
+                return bookingRepository.countByItem_OwnerAndEndBefore(user, LocalDateTime.now());
+            case FUTURE:
+                return bookingRepository.countByItem_OwnerAndStartAfter(user, LocalDateTime.now());
+            case WAITING:
+                return bookingRepository.countByItem_OwnerAndStatus(user, Status.WAITING);
+            case REJECTED:
+                return bookingRepository.countByItem_OwnerAndStatus(user, Status.REJECTED);
+            default:
+                return bookingRepository.countByItem_Owner(user);
+        }
+    }
+
+    public List<BookingDto> getAllUserBookingsAfter(LocalDateTime afterStart, Long afterId, int size, long userId, String stateStr) {
+        checkValidCursor(afterStart, afterId, size);
+        Specification<Booking> filter = BookingSpecifications.bookedBy(getUser(userId))
+                .and(BookingSpecifications.inState(State.valueOf(stateStr), LocalDateTime.now()));
+        return bookingRepository.findAfterCursor(filter, afterStart, afterId, size).stream()
+                .map(bookingMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<BookingDto> getAllUsersItemsBookingsAfter(LocalDateTime afterStart, Long afterId, int size, long ownerId, String stateStr) {
+        checkValidCursor(afterStart, afterId, size);
+        Specification<Booking> filter = BookingSpecifications.ofItemsOf(getUser(ownerId))
+                .and(BookingSpecifications.inState(State.valueOf(stateStr), LocalDateTime.now()));
+        return bookingRepository.findAfterCursor(filter, afterStart, afterId, size).stream()
+                .map(bookingMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checked before an export starts: once its NDJSON body is streaming, an unknown user can no
+     * longer be answered 404.
+     */
+    public void checkUserExists(long userId) {
+        getUser(userId);
+    }
+
+    /**
+     * Feeds the whole booking history of the user to {@code sink}, latest first, from a database cursor.
+     */
+    @Transactional(readOnly = true)
+    public void exportUserBookings(long userId, Consumer<BookingDto> sink) {
+        try (Stream<Booking> bookings = bookingRepository.streamByBooker(getUser(userId))) {
+            export(bookings, sink);
+        }
+    }
+
+    /**
+     * Feeds all bookings of the owner's items to {@code sink}, latest first, from a database cursor.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsersItemsBookings(long ownerId, Consumer<BookingDto> sink) {
+        try (Stream<Booking> bookings = bookingRepository.streamByItemOwner(getUser(ownerId))) {
+            export(bookings, sink);
+        }
+    }
+
+    /**
+     * Clears the persistence context every {@value EXPORT_CHUNK} rows so that the loaded bookings
+     * and items do not pile up over a long history.
+     */
+    private void export(Stream<Booking> bookings, Consumer<BookingDto> sink) {
+        int rows = 0;
+        for (Iterator<Booking> iterator = bookings.iterator(); iterator.hasNext(); ) {
+            sink.accept(bookingMapper.toDTO(iterator.next()));
+            if (++rows % EXPORT_CHUNK == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
+    private void approve(Booking booking) {
+        Lock lock = itemLocks.get(booking.getItem().getId());
+        lock.lock();
+        try {
+            checkNotBooked(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            changeStatus(booking.getId(), Status.APPROVED);
+            bookingIntervalIndex.add(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Item is already booked for this time");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Booking newBooking(BookingIncome bookingIncome, Item item, User booker) {
+        checkBookable(bookingIncome, item, booker);
+        checkNotBooked(item.getId(), bookingIncome.getStart(), bookingIncome.getEnd());
+        return bookingMapper.toModel(bookingIncome, item, booker);
+    }
+
+    private void checkBookable(BookingIncome bookingIncome, Item item, User booker) {
+        if (item.getOwner().getId().equals(booker.getId())) {
+            throw new NotFoundException("You can't book your item");
+        }
+        if (!item.getAvailable()) {
+            throw new LockedException("Item not available");
+        }
+        if (!bookingIntervalIndex.isFree(item.getId(), bookingIncome.getStart(), bookingIncome.getEnd())) {
+            throw new ConflictException("Item is already booked for this time");
+        }
+    }
+
+    private void changeStatus(long bookingId, Status status) {
+        if (bookingRepository.updateStatus(bookingId, Status.WAITING, status) == 0) {
+            throw new LockedException("You cant change status twice");
+        }
+    }
+
+    private void checkNotBooked(long itemId, LocalDateTime start, LocalDateTime end) {
+        bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(itemId, Status.APPROVED, end)
+                .filter(booking -> booking.getEnd().isAfter(start))
+                .ifPresent(booking -> {
+                    throw new ConflictException("Item is already booked for this time");
+                });
+    }
+
+    /**
+     * The approved intervals of {@code itemIds} that overlap the span of the well-timed entries, by item.
+     */
+    private Map<Long, List<BookingIntervalView>> findApprovedIntervals(Set<Long> itemIds, List<BookingIncome> bookingIncomes) {
+        List<BookingIncome> timed = bookingIncomes.stream()
+                .filter(it -> it.getStart() != null && it.getEnd() != null && it.getStart().isBefore(it.getEnd()))
+                .collect(Collectors.toList());
+        if (itemIds.isEmpty() || timed.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime start = timed.stream().map(BookingIncome::getStart).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime end = timed.stream().map(BookingIncome::getEnd).max(LocalDateTime::compareTo).orElseThrow();
+        return bookingRepository.findIntervalsByItemIdsAndStatusOverlapping(itemIds, Status.APPROVED, start, end).stream()
+                .collect(Collectors.groupingBy(BookingIntervalView::getItemId));
+    }
+
+    private static void checkNotBooked(List<BookingIntervalView> approved, LocalDateTime start, LocalDateTime end) {
+        if (approved.stream().anyMatch(it -> it.getStart().isBefore(end) && it.getEnd().isAfter(start))) {
+            throw new ConflictException("Item is already booked for this time");
+        }
+    }
+
+    private void checkValidBatch(List<BookingIncome> bookingIncomes) {
+        if (bookingIncomes == null || bookingIncomes.isEmpty() || bookingIncomes.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("A batch must hold from 1 to " + MAX_BATCH_SIZE + " bookings");
+        }
+        List<Integer> nulls = IntStream.range(0, bookingIncomes.size())
+                .filter(i -> bookingIncomes.get(i) == null)
+                .boxed()
+                .collect(Collectors.toList());
+        if (!nulls.isEmpty()) {
+            throw new ValidationException("Invalid bookings at positions " + nulls);
+        }
+    }
+
+    private void checkValidCursor(LocalDateTime afterStart, Long afterId, int size) {
+        if (afterStart == null || afterId == null || size <= 0) {
+            throw new ValidationException("Incorrect page query");
+        }
+    }
+
+    private User getUser(long userId) {
+        return userRepository.findById(userId).orElseThrow(() -> new NotFoundException("No such user was found"));
+    }
+
     private void checkValidBookingTime(BookingIncome bookingIncome) {
         if (bookingIncome.getEnd().isBefore(bookingIncome.getStart()) || bookingIncome.getStart().isEqual(bookingIncome.getEnd())) {
             throw new ValidationException("Wrong time");
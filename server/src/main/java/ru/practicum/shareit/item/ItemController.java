@@ -1,7 +1,10 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,13 +14,19 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.model.dto.CommentDto;
 import ru.practicum.shareit.item.model.dto.CommentIncome;
+import ru.practicum.shareit.item.model.dto.FreeItems;
+import ru.practicum.shareit.item.model.dto.ItemAvailability;
+import ru.practicum.shareit.item.model.dto.ItemBatchResult;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.ItemIncome;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.utils.ConstantUtils;
+import ru.practicum.shareit.utils.NdjsonBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -26,6 +35,7 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto createItem(@RequestBody ItemIncome itemIncome,
@@ -34,6 +44,13 @@ public class ItemController {
         return itemService.createItem(itemIncome, owner);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResult> createItems(@RequestBody List<ItemIncome> itemIncomes,
+                                             @RequestHeader(ConstantUtils.USER_ID) long owner) {
+        log.info("Requested creating {} items", itemIncomes.size());
+        return itemService.createItems(itemIncomes, owner);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestBody ItemIncome itemIncome,
                               @RequestHeader(ConstantUtils.USER_ID) long owner,
@@ -54,6 +71,13 @@ public class ItemController {
         return itemService.getUserItems(from, size, owner);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsersItems(@RequestHeader(ConstantUtils.USER_ID) long owner) {
+        log.info("Requested export of all user {} items", owner);
+        itemService.checkUserExists(owner);
+        return NdjsonBody.<ItemDto>of(objectMapper, sink -> itemService.exportUserItems(owner, sink));
+    }
+
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_FROM) int from,
                                      @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
@@ -62,6 +86,23 @@ public class ItemController {
         return itemService.searchItems(from, size, text);
     }
 
+    @GetMapping("/available")
+    public FreeItems getFreeItems(@RequestParam(required = false, defaultValue = "0") long afterId,
+                                  @RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_SIZE) int size,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Requested items free from {} to {}", start, end);
+        return itemService.getFreeItems(start, end, afterId, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailability getItemAvailability(@PathVariable long itemId,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Requested item {} availability from {} to {}", itemId, start, end);
+        return itemService.getItemAvailability(itemId, start, end);
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@RequestHeader(ConstantUtils.USER_ID) long user,
                                @PathVariable long itemId) {
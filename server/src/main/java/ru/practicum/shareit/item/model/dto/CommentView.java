@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.model.dto;
+
+import java.time.LocalDateTime;
+
+public interface CommentView {
+    Long getItemId();
+
+    Long getId();
+
+    String getAuthorName();
+
+    String getText();
+
+    LocalDateTime getCreated();
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A page of free items; the next page is asked with {@code afterId=nextAfterId}.
+ * {@code nextAfterId} is null once every available item was scanned.
+ */
+@Data
+@AllArgsConstructor
+public class FreeItems {
+    private List<ItemShort> items;
+    private Long nextAfterId;
+}
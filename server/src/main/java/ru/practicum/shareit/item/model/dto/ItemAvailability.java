@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemAvailability {
+    private long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean available;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one entry of {@code POST /items/batch}: the {@code id} of the created item with status 200,
+ * otherwise the status and {@code error} of the entry. The caller sent the item itself, so it is not echoed.
+ */
+@Data
+@AllArgsConstructor
+public class ItemBatchResult {
+    private int status;
+    private Long id;
+    private String error;
+}
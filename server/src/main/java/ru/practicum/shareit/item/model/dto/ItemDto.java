@@ -1,12 +1,14 @@
 package ru.practicum.shareit.item.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import ru.practicum.shareit.booking.model.dto.BookingForItem;
+import ru.practicum.shareit.utils.Versioned;
 
 import java.util.List;
 
 @Data
-public class ItemDto {
+public class ItemDto implements Versioned {
     private long id;
     private String name;
     private String description;
@@ -15,4 +17,18 @@ public class ItemDto {
     private BookingForItem nextBooking;
     private List<CommentDto> comments;
     private long requestId;
+    @JsonIgnore
+    private long version;
+
+    @Override
+    public String versionTag() {
+        StringBuilder tag = new StringBuilder("i").append(id).append('.').append(version)
+                .append(":l").append(lastBooking == null ? 0 : lastBooking.getId())
+                .append(":n").append(nextBooking == null ? 0 : nextBooking.getId());
+        if (comments != null) {
+            // comments are never updated, only their author can be renamed
+            comments.forEach(it -> tag.append(":c").append(it.getId()).append('.').append(it.getAuthorName()));
+        }
+        return tag.toString();
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 @Data
@@ -9,4 +10,6 @@ public class ItemForRequest {
     private String description;
     private Boolean available;
     private long requestId;
+    @JsonIgnore
+    private long version;
 }
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 @Data
 public class ItemShort {
     private long id;
     private String name;
+    @JsonIgnore
+    private long version;
 }
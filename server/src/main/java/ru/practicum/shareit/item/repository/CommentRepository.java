@@ -1,13 +1,27 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.dto.CommentView;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItem(Item item);
 
     List<Comment> findByItemIn(List<Item> items);
+
+    @Query(value = "select c.item_id as \"itemId\", c.id as \"id\", u.name as \"authorName\", c.text as \"text\", " +
+            "c.created as \"created\" from (" +
+            "select item_id, id, user_id, text, created, " +
+            "row_number() over (partition by item_id order by created desc, id desc) as rn " +
+            "from comments where item_id in (?1)) c " +
+            "join users u on u.id = c.user_id " +
+            "where c.rn <= ?2 " +
+            "order by c.created, c.id",
+            nativeQuery = true)
+    List<CommentView> findLatestByItemIds(Collection<Long> itemIds, int limit);
 }
@@ -2,23 +2,46 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
 
 public interface ItemRepository extends PagingAndSortingRepository<Item, Long> {
 
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     List<Item> findByOwner(User user, Pageable pageable);
 
+    long countByOwner(User user);
+
     @Query("select i from Item i where i.available = true " +
             "and ( upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')))")
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by case when upper(i.name) = upper(?1) then 0 " +
+            "when upper(i.name) like upper(concat(?1, '%')) then 1 " +
+            "when upper(i.name) like upper(concat('%', ?1, '%')) then 2 " +
+            "else 3 end, i.id")
     List<Item> findByText(String str, Pageable pageable);
 
     List<Item> findByRequestIn(Collection<ItemRequest> requests);
 
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderById(long id, Pageable pageable);
+
+    /**
+     * All items of the owner in id order, read through a database cursor. Must be consumed and
+     * closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = "500"))
+    @Query("select i from Item i where i.owner = ?1 order by i.id")
+    Stream<Item> streamByOwner(User owner);
+
 }
@@ -7,6 +7,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.dto.CommentDto;
 import ru.practicum.shareit.item.model.dto.CommentIncome;
+import ru.practicum.shareit.item.model.dto.CommentView;
 import ru.practicum.shareit.user.model.User;
 
 @Mapper(componentModel = "spring", injectionStrategy = InjectionStrategy.CONSTRUCTOR)
@@ -14,6 +15,8 @@ public interface CommentMapper {
     @Mapping(source = "comment.user.name", target = "authorName")
     CommentDto toDTO(Comment comment);
 
+    CommentDto fromView(CommentView commentView);
+
     @Mapping(target = "user", source = "user")
     @Mapping(target = "id", source = "commentDto.id")
     @Mapping(target = "item", source = "item")
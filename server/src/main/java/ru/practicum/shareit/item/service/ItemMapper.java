@@ -21,16 +21,18 @@ public interface ItemMapper {
     ItemDto toDTO(Item item, List<CommentDto> comments);
 
     @Mapping(target = "owner", source = "owner")
-    @Mapping(target = "id", source = "itemIncome.id")
+    @Mapping(target = "id", ignore = true)
     @Mapping(target = "name", source = "itemIncome.name")
     @Mapping(target = "request", source = "itemRequest")
     @Mapping(target = "description", source = "itemIncome.description")
+    @Mapping(target = "version", ignore = true)
     Item toModel(ItemIncome itemIncome, User owner, ItemRequest itemRequest);
 
     @Mapping(target = "owner", source = "owner")
-    @Mapping(target = "id", source = "itemIncome.id")
+    @Mapping(target = "id", ignore = true)
     @Mapping(target = "name", source = "itemIncome.name")
     @Mapping(target = "description", source = "itemIncome.description")
+    @Mapping(target = "version", ignore = true)
     Item toModel(ItemIncome itemIncome, User owner);
 
     @Mapping(target = "id", source = "item.id")
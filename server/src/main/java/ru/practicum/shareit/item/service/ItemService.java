@@ -2,38 +2,52 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Status;
-import ru.practicum.shareit.booking.model.dto.BookingDto;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.dto.BookingForItem;
+import ru.practicum.shareit.booking.model.dto.BookingForItemView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.booking.service.BookingMapper;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.LockedException;
 import ru.practicum.shareit.exceptions.NoAuthorizationException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.dto.CommentDto;
 import ru.practicum.shareit.item.model.dto.CommentIncome;
+import ru.practicum.shareit.item.model.dto.CommentView;
+import ru.practicum.shareit.item.model.dto.FreeItems;
+import ru.practicum.shareit.item.model.dto.ItemAvailability;
+import ru.practicum.shareit.item.model.dto.ItemBatchResult;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.ItemIncome;
+import ru.practicum.shareit.item.model.dto.ItemShort;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.OffsetPageRequest;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 
@@ -41,20 +55,31 @@ import static java.util.stream.Collectors.toList;
 @Service
 @RequiredArgsConstructor
 public class ItemService {
+    private static final int SEARCH_COMMENTS_LIMIT = 10;
+    private static final int FREE_ITEMS_BATCH = 100;
+    private static final int FREE_ITEMS_SCAN_LIMIT = 1000;
+    private static final int EXPORT_CHUNK = 500;
+    /**
+     * Matches the chunk size of the gateway's CSV import, which sends each chunk as one batch.
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final ItemMapper itemMapper;
-    private final BookingMapper bookingMapper;
     private final ItemRequestRepository itemRequestRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final EntityManager entityManager;
 
     public ItemDto createItem(ItemIncome itemIncome, long owner) {
         User user = userRepository.findById(owner).orElseThrow(() -> new NotFoundException("No such owner was found"));
         Item item;
         if (itemIncome.getRequestId() != null) {
-            ItemRequest itemRequest = itemRequestRepository.findById(itemIncome.getRequestId()).orElseThrow(() -> new NotFoundException("No such request was found"));
+            ItemRequest itemRequest = itemRequestRepository.findById(itemIncome.getRequestId())
+                    .orElseThrow(() -> new NotFoundException("No such request was found"));
             item = itemRepository.save(itemMapper.toModel(itemIncome, user, itemRequest));
         } else {
             item = itemRepository.save(itemMapper.toModel(itemIncome, user));
@@ -62,60 +87,116 @@ public class ItemService {
         return itemMapper.toDTO(item, Collections.emptyList());
     }
 
+    /**
+     * Creates items for one owner in a single transaction: the owner is checked once, the referenced
+     * requests are loaded in one query and the inserts go out in JDBC batches.
+     * A batch holds from 1 to {@value MAX_BATCH_SIZE} items and no null entries.
+     *
+     * @return one result per entry, in the order of {@code itemIncomes}
+     */
+    @Transactional
+    public List<ItemBatchResult> createItems(List<ItemIncome> itemIncomes, long owner) {
+        checkValidBatch(itemIncomes);
+        User user = userRepository.findById(owner).orElseThrow(() -> new NotFoundException("No such owner was found"));
+        Set<Long> requestIds = itemIncomes.stream()
+                .map(ItemIncome::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        ItemBatchResult[] results = new ItemBatchResult[itemIncomes.size()];
+        List<Item> items = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < itemIncomes.size(); i++) {
+            ItemIncome itemIncome = itemIncomes.get(i);
+            ItemRequest itemRequest = null;
+            if (itemIncome.getRequestId() != null) {
+                itemRequest = requests.get(itemIncome.getRequestId());
+                if (itemRequest == null) {
+                    results[i] = new ItemBatchResult(HttpStatus.NOT_FOUND.value(), null, "No such request was found");
+                    continue;
+                }
+            }
+            items.add(itemMapper.toModel(itemIncome, user, itemRequest));
+            positions.add(i);
+        }
+        int saved = 0;
+        for (Item item : itemRepository.saveAll(items)) {
+            results[positions.get(saved++)] = new ItemBatchResult(HttpStatus.OK.value(), item.getId(), null);
+        }
+        return List.of(results);
+    }
+
     public ItemDto updateItem(ItemIncome itemIncome, long owner) {
         Item item = itemRepository.findById(itemIncome.getId()).orElseThrow(() -> new NotFoundException("No such item was found"));
         if (item.getOwner().getId() != owner) {
             log.error("Unauthorized update attempt");
             throw new NoAuthorizationException("You do not have authorization to update the object");
         }
-        itemIncome.setName(itemIncome.getName() == null ? item.getName() : itemIncome.getName());
-        itemIncome.setDescription(itemIncome.getDescription() == null ? item.getDescription() : itemIncome.getDescription());
-        itemIncome.setAvailable(itemIncome.getAvailable() == null ? item.getAvailable() : itemIncome.getAvailable());
-        Item item1 = itemRepository.save(itemMapper.toModel(itemIncome, item.getOwner()));
+        item.setName(itemIncome.getName() == null ? item.getName() : itemIncome.getName());
+        item.setDescription(itemIncome.getDescription() == null ? item.getDescription() : itemIncome.getDescription());
+        item.setAvailable(itemIncome.getAvailable() == null ? item.getAvailable() : itemIncome.getAvailable());
+        Item item1 = itemRepository.save(item);
         var comments = commentRepository.findByItem(item1).stream().map(commentMapper::toDTO).collect(toList());
         return itemMapper.toDTO(item1, comments);
     }
 
     public List<ItemDto> getUserItems(int from, int size, long owner) {
-        User user = userRepository.findById(owner).orElseThrow(() -> new ConflictException("No such user was found"));
-        PageRequest pageRequest = PageRequest.of(from, size);
-        var items = itemRepository.findByOwner(user, pageRequest);
-
-        Map<Long, List<BookingDto>> map = bookingRepository.findByItemInAndStartLessThanEqualAndStatus(items, LocalDateTime.now(), Status.APPROVED).stream()
-                .map(bookingMapper::toDTO)
-                .sorted(Comparator.comparing(it -> -it.getStart().toInstant(ZoneOffset.UTC).toEpochMilli()))
-                .collect(Collectors.groupingBy(it -> it.getItem().getId(), toList()));
-        Map<Long, List<BookingDto>> map2 = bookingRepository.findByItemInAndStartAfterAndStatus(items, LocalDateTime.now(), Status.APPROVED).stream()
-                .map(bookingMapper::toDTO)
-                .sorted(Comparator.comparing(it -> it.getStart().toInstant(ZoneOffset.UTC).toEpochMilli()))
-                .collect(Collectors.groupingBy(it -> it.getItem().getId(), toList()));
-
-        var itemsDto = items.stream().map((it) -> {
-            var comments = commentRepository.findByItem(it).stream().map(commentMapper::toDTO).collect(toList());
-            return itemMapper.toDTO(it, comments);
-        }).sorted(Comparator.comparingLong(ItemDto::getId)).collect(toList());
-        itemsDto.forEach(it -> {
-            if (!map.isEmpty() && map.get(it.getId()) != null) {
-                BookingDto bookingDto = map.get(it.getId()).get(0);
-                if (bookingDto == null) {
-                    it.setLastBooking(null);
-                } else {
-                    BookingForItem booking = new BookingForItem(bookingDto.getId(), bookingDto.getBooker().getId());
-                    it.setLastBooking(booking);
-                }
-            }
-            if (!map2.isEmpty() && map.get(it.getId()) != null) {
-                BookingDto bookingDto = map2.get(it.getId()).get(0);
-                if (bookingDto == null) {
-                    it.setNextBooking(null);
-                } else {
-                    BookingForItem booking = new BookingForItem(bookingDto.getId(), bookingDto.getBooker().getId());
-                    it.setNextBooking(booking);
+        User user = getUser(owner);
+        OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size, Sort.by("id"));
+        return toOwnerDtos(itemRepository.findByOwner(user, pageRequest));
+    }
+
+    public long countUserItems(long owner) {
+        return itemRepository.countByOwner(getUser(owner));
+    }
+
+    /**
+     * Fails like the other owner endpoints do for an unknown owner. The export calls it before its
+     * response is committed to NDJSON, where the error could no longer be written.
+     */
+    public void checkUserExists(long owner) {
+        getUser(owner);
+    }
+
+    /**
+     * Feeds all items of the owner to {@code sink} in id order, as {@link #getUserItems} pages them,
+     * from a database cursor. Comments and bookings are loaded per chunk of {@value EXPORT_CHUNK} items,
+     * after which the persistence context is cleared.
+     */
+    @Transactional(readOnly = true)
+    public void exportUserItems(long owner, Consumer<ItemDto> sink) {
+        try (Stream<Item> items = itemRepository.streamByOwner(getUser(owner))) {
+            List<Item> chunk = new ArrayList<>(EXPORT_CHUNK);
+            for (Iterator<Item> iterator = items.iterator(); iterator.hasNext(); ) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK || !iterator.hasNext()) {
+                    toOwnerDtos(chunk).forEach(sink);
+                    chunk.clear();
+                    entityManager.clear();
                 }
             }
-        });
+        }
+    }
+
+    private List<ItemDto> toOwnerDtos(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIn(items).stream()
+                .collect(Collectors.groupingBy(it -> it.getItem().getId(), Collectors.mapping(commentMapper::toDTO, toList())));
+        List<Long> itemIds = items.stream().map(Item::getId).collect(toList());
+        Map<Long, BookingForItem> lastBookings = toBookingsForItem(bookingRepository.findLastByItemIds(itemIds, now));
+        Map<Long, BookingForItem> nextBookings = toBookingsForItem(bookingRepository.findNextByItemIds(itemIds, now));
 
-        return itemsDto;
+        return items.stream().map(it -> {
+            ItemDto itemDto = itemMapper.toDTO(it, comments.getOrDefault(it.getId(), Collections.emptyList()));
+            itemDto.setLastBooking(lastBookings.get(it.getId()));
+            itemDto.setNextBooking(nextBookings.get(it.getId()));
+            return itemDto;
+        }).collect(toList());
     }
 
     public List<ItemDto> searchItems(int from, int size, String text) {
@@ -123,16 +204,17 @@ public class ItemService {
             log.info("Empty search request");
             return Collections.emptyList();
         }
-        PageRequest pageRequest = PageRequest.of(from, size);
+        OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size);
         var items = itemRepository.findByText(text, pageRequest);
-        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIn(items)
-                .stream()
-                .sorted(Comparator.comparingLong(it -> it.getCreated().toInstant(ZoneOffset.UTC).toEpochMilli()))
-                .map(commentMapper::toDTO)
-                .collect(Collectors.groupingBy(CommentDto::getId, toList()));
-        List<ItemDto> result = new ArrayList<>();
-        items.forEach(item -> result.add(itemMapper.toDTO(item, comments.get(item.getId()))));
-        return result;
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(toList());
+        Map<Long, List<CommentDto>> comments = commentRepository.findLatestByItemIds(itemIds, SEARCH_COMMENTS_LIMIT).stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId, Collectors.mapping(commentMapper::fromView, toList())));
+        return items.stream()
+                .map(item -> itemMapper.toDTO(item, comments.getOrDefault(item.getId(), Collections.emptyList())))
+                .collect(toList());
     }
 
     public ItemDto getItemById(long id, long userId) {
@@ -140,22 +222,10 @@ public class ItemService {
         var comments = commentRepository.findByItem(item).stream().map(commentMapper::toDTO).collect(toList());
         ItemDto itemDto = itemMapper.toDTO(item, comments);
         if (item.getOwner().getId() == userId) {
-            List<BookingDto> list = bookingRepository.findByItemAndStartLessThanEqualAndStatus(item, LocalDateTime.now(), Status.APPROVED).stream()
-                    .map(bookingMapper::toDTO)
-                    .sorted(Comparator.comparing(it -> -it.getStart().toInstant(ZoneOffset.UTC).toEpochMilli()))
-                    .collect(toList());
-            List<BookingDto> list2 = bookingRepository.findByItemAndStartAfterAndStatus(item, LocalDateTime.now(), Status.APPROVED).stream()
-                    .map(bookingMapper::toDTO)
-                    .sorted(Comparator.comparing(it -> it.getStart().toInstant(ZoneOffset.UTC).toEpochMilli()))
-                    .collect(toList());
-            if (!list.isEmpty()) {
-                BookingForItem booking = new BookingForItem(list.get(0).getId(), list.get(0).getBooker().getId());
-                itemDto.setLastBooking(booking);
-            }
-            if (!list2.isEmpty()) {
-                BookingForItem booking = new BookingForItem(list2.get(0).getId(), list2.get(0).getBooker().getId());
-                itemDto.setNextBooking(booking);
-            }
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> itemIds = List.of(item.getId());
+            itemDto.setLastBooking(toBookingsForItem(bookingRepository.findLastByItemIds(itemIds, now)).get(item.getId()));
+            itemDto.setNextBooking(toBookingsForItem(bookingRepository.findNextByItemIds(itemIds, now)).get(item.getId()));
         }
         return itemDto;
     }
@@ -175,4 +245,71 @@ public class ItemService {
         comment = commentRepository.save(comment);
         return commentMapper.toDTO(comment);
     }
+
+    public ItemAvailability getItemAvailability(long itemId, LocalDateTime start, LocalDateTime end) {
+        checkValidWindow(start, end);
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("No such item was found"));
+        boolean available = item.getAvailable() && bookingIntervalIndex.isFree(itemId, start, end);
+        return new ItemAvailability(itemId, start, end, available);
+    }
+
+    /**
+     * Walks the available items in id order after {@code afterId} and keeps those without an approved booking
+     * in the window: the database is read in batches, the window check is a lookup in {@link BookingIntervalIndex}.
+     * At most {@value FREE_ITEMS_SCAN_LIMIT} items are scanned per call, so a busy window may give a short page;
+     * the next page continues where the scan stopped.
+     */
+    public FreeItems getFreeItems(LocalDateTime start, LocalDateTime end, long afterId, int size) {
+        checkValidWindow(start, end);
+        if (afterId < 0 || size <= 0) {
+            throw new ValidationException("Incorrect page query");
+        }
+        List<ItemShort> free = new ArrayList<>(size);
+        long cursor = afterId;
+        for (int scanned = 0; scanned < FREE_ITEMS_SCAN_LIMIT; scanned += FREE_ITEMS_BATCH) {
+            List<Item> batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(cursor,
+                    OffsetPageRequest.of(0, FREE_ITEMS_BATCH));
+            for (Item item : batch) {
+                cursor = item.getId();
+                if (bookingIntervalIndex.isFree(item.getId(), start, end)) {
+                    free.add(itemMapper.toShort(item));
+                    if (free.size() == size) {
+                        return new FreeItems(free, cursor);
+                    }
+                }
+            }
+            if (batch.size() < FREE_ITEMS_BATCH) {
+                return new FreeItems(free, null);
+            }
+        }
+        return new FreeItems(free, cursor);
+    }
+
+    private void checkValidBatch(List<ItemIncome> itemIncomes) {
+        if (itemIncomes == null || itemIncomes.isEmpty() || itemIncomes.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("A batch must hold from 1 to " + MAX_BATCH_SIZE + " items");
+        }
+        List<Integer> nulls = IntStream.range(0, itemIncomes.size())
+                .filter(i -> itemIncomes.get(i) == null)
+                .boxed()
+                .collect(toList());
+        if (!nulls.isEmpty()) {
+            throw new ValidationException("Invalid items at positions " + nulls);
+        }
+    }
+
+    private User getUser(long owner) {
+        return userRepository.findById(owner).orElseThrow(() -> new ConflictException("No such user was found"));
+    }
+
+    private void checkValidWindow(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Wrong time");
+        }
+    }
+
+    private Map<Long, BookingForItem> toBookingsForItem(List<BookingForItemView> bookings) {
+        return bookings.stream().collect(Collectors.toMap(BookingForItemView::getItemId,
+                it -> new BookingForItem(it.getId(), it.getBookerId())));
+    }
 }
@@ -1,16 +1,28 @@
 package ru.practicum.shareit.request.model.dto;
 
-
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import ru.practicum.shareit.item.model.dto.ItemForRequest;
+import ru.practicum.shareit.utils.Versioned;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-public class ItemRequestDto {
+public class ItemRequestDto implements Versioned {
     private long id;
     private String description;
     private LocalDateTime created;
     private List<ItemForRequest> items;
+    @JsonIgnore
+    private long version;
+
+    @Override
+    public String versionTag() {
+        StringBuilder tag = new StringBuilder("r").append(id).append('.').append(version);
+        if (items != null) {
+            items.forEach(it -> tag.append(":i").append(it.getId()).append('.').append(it.getVersion()));
+        }
+        return tag.toString();
+    }
 }
@@ -1,16 +1,23 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
-public interface ItemRequestRepository extends PagingAndSortingRepository<ItemRequest, Long> {
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
 
     List<ItemRequest> findByOwnerNot(User owner, Pageable pageable);
 
+    long countByOwnerNot(User owner);
+
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     List<ItemRequest> findByOwner(User owner);
 }
@@ -16,6 +16,7 @@ import java.util.List;
 public interface ItemRequestMapper {
     @Mapping(target = "created", source = "created")
     @Mapping(target = "owner", source = "user")
+    @Mapping(target = "version", ignore = true)
     ItemRequest toModel(ItemRequestInput itemRequestInput, LocalDateTime created, User user);
 
     @Mapping(target = "items", source = "items")
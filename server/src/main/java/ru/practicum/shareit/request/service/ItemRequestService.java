@@ -1,7 +1,6 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -14,6 +13,7 @@ import ru.practicum.shareit.request.model.dto.ItemRequestInput;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -32,13 +32,13 @@ public class ItemRequestService {
     private final ItemMapper itemMapper;
 
     public ItemRequestDto createRequest(ItemRequestInput itemRequestInput, long user) {
-        User userFromDb = userRepository.findById(user).orElseThrow(() -> new NotFoundException("No such user was found"));
+        User userFromDb = getUser(user);
         LocalDateTime created = LocalDateTime.now();
         return itemRequestMapper.toDto(itemRequestRepository.save(itemRequestMapper.toModel(itemRequestInput, created, userFromDb)), Collections.emptyList());
     }
 
     public List<ItemRequestDto> findUserRequests(long user) {
-        User userFromDb = userRepository.findById(user).orElseThrow(() -> new NotFoundException("No such user was found"));
+        User userFromDb = getUser(user);
         List<ItemRequest> requests = itemRequestRepository.findByOwner(userFromDb);
         var items = itemRepository.findByRequestIn(requests);
         if (items.isEmpty()) {
@@ -46,15 +46,15 @@ public class ItemRequestService {
         }
         Map<Long, List<Item>> itemsGroupedByRequestId = items.stream().collect(Collectors.groupingBy(it -> it.getRequest().getId()));
         return requests.stream()
-                .map(it -> itemRequestMapper.toDto(it, itemsGroupedByRequestId.get(it.getId()).stream()
+                .map(it -> itemRequestMapper.toDto(it, itemsGroupedByRequestId.getOrDefault(it.getId(), Collections.emptyList()).stream()
                         .map(itemMapper::toRequest).collect(Collectors.toList())))
                 .sorted(Comparator.comparing(ItemRequestDto::getCreated))
                 .collect(Collectors.toList());
     }
 
     public List<ItemRequestDto> findAllRequests(int from, int size, long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("No such user was found"));
-        PageRequest pageRequest = PageRequest.of(from, size, Sort.Direction.DESC, "created");
+        User user = getUser(userId);
+        OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "created"));
         var res = itemRequestRepository.findByOwnerNot(user, pageRequest);
         var items = itemRepository.findByRequestIn(res);
         if (items.isEmpty()) {
@@ -63,16 +63,24 @@ public class ItemRequestService {
         Map<Long, List<Item>> itemsGroupedByRequestId = items.stream().collect(Collectors.groupingBy(it -> it.getRequest().getId()));
 
         return res.stream()
-                .map(it -> itemRequestMapper.toDto(it, itemsGroupedByRequestId.get(it.getId()).stream()
+                .map(it -> itemRequestMapper.toDto(it, itemsGroupedByRequestId.getOrDefault(it.getId(), Collections.emptyList()).stream()
                         .map(itemMapper::toRequest).collect(Collectors.toList())))
                 .sorted(Comparator.comparing(ItemRequestDto::getCreated))
                 .collect(Collectors.toList());
     }
 
+    public long countOtherUsersRequests(long userId) {
+        return itemRequestRepository.countByOwnerNot(getUser(userId));
+    }
+
     public ItemRequestDto getById(long userId, long requestId) {
-        if (!userRepository.existsById(userId)) throw new NotFoundException("No such user was found");
+        getUser(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId).orElseThrow(() -> new NotFoundException("No such item request was found"));
         var items = itemRepository.findByRequestIn(List.of(itemRequest)).stream().map(itemMapper::toRequest).collect(Collectors.toList());
         return itemRequestMapper.toDto(itemRequest, items);
     }
+
+    private User getUser(long userId) {
+        return userRepository.findById(userId).orElseThrow(() -> new NotFoundException("No such user was found"));
+    }
 }
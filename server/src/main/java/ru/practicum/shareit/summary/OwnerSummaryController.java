@@ -0,0 +1,27 @@
+package ru.practicum.shareit.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.summary.model.dto.OwnerSummary;
+import ru.practicum.shareit.summary.service.OwnerSummaryService;
+import ru.practicum.shareit.utils.ConstantUtils;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/summary")
+public class OwnerSummaryController {
+    private final OwnerSummaryService ownerSummaryService;
+
+    @GetMapping
+    public OwnerSummary getOwnerSummary(@RequestParam(required = false, defaultValue = ConstantUtils.DEFAULT_TOP) int top,
+                                        @RequestHeader(ConstantUtils.USER_ID) long owner) {
+        log.info("Requested summary of user {}", owner);
+        return ownerSummaryService.getOwnerSummary(owner, top);
+    }
+}
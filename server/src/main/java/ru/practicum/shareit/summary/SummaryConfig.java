@@ -0,0 +1,9 @@
+package ru.practicum.shareit.summary;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SummaryProperties.class)
+public class SummaryConfig {
+}
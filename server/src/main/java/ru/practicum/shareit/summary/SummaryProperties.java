@@ -0,0 +1,16 @@
+package ru.practicum.shareit.summary;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.summary")
+public class SummaryProperties {
+    private int threads = 8;
+    private int queueCapacity = 64;
+    private Duration timeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.summary.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.dto.BookingDto;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.request.model.dto.ItemRequestDto;
+import ru.practicum.shareit.utils.Versioned;
+
+/**
+ * What the owner app shows on launch: the sections of {@code GET /items}, {@code GET /bookings/owner}
+ * with the WAITING and CURRENT states and {@code GET /requests/all}.
+ */
+@Data
+@AllArgsConstructor
+public class OwnerSummary implements Versioned {
+    private SummarySection<ItemDto> items;
+    private SummarySection<BookingDto> waitingBookings;
+    private SummarySection<BookingDto> currentBookings;
+    private SummarySection<ItemRequestDto> requests;
+
+    @Override
+    public String versionTag() {
+        return "i" + items.versionTag() + "w" + waitingBookings.versionTag()
+                + "c" + currentBookings.versionTag() + "r" + requests.versionTag();
+    }
+}
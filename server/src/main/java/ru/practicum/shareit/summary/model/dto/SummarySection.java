@@ -0,0 +1,25 @@
+package ru.practicum.shareit.summary.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.utils.Versioned;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * How many entries a list endpoint would page through and the first of them.
+ */
+@Data
+@AllArgsConstructor
+public class SummarySection<T extends Versioned> implements Versioned {
+    private long count;
+    private List<T> top;
+
+    @Override
+    public String versionTag() {
+        return top.stream()
+                .map(Versioned::versionTag)
+                .collect(Collectors.joining(",", count + "[", "]"));
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.summary.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.UnavailableException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.summary.SummaryProperties;
+import ru.practicum.shareit.summary.model.dto.OwnerSummary;
+import ru.practicum.shareit.summary.model.dto.SummarySection;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * The sections run on a bounded pool private to this service: published as an executor bean, it would
+ * make Boot drop its {@code applicationTaskExecutor}. A summary that cannot be queued is answered 503.
+ */
+@Service
+public class OwnerSummaryService implements DisposableBean {
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private final UserRepository userRepository;
+    private final Executor executor;
+    private final Duration timeout;
+
+    @Autowired
+    public OwnerSummaryService(ItemService itemService, BookingService bookingService,
+                               ItemRequestService itemRequestService, UserRepository userRepository,
+                               SummaryProperties properties) {
+        this(itemService, bookingService, itemRequestService, userRepository, summaryExecutor(properties),
+                properties.getTimeout());
+    }
+
+    OwnerSummaryService(ItemService itemService, BookingService bookingService,
+                        ItemRequestService itemRequestService, UserRepository userRepository,
+                        Executor executor, Duration timeout) {
+        this.itemService = itemService;
+        this.bookingService = bookingService;
+        this.itemRequestService = itemRequestService;
+        this.userRepository = userRepository;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Builds the four sections concurrently on the summary executor, each being a count query and
+     * the first page of the matching list endpoint, so the answer takes about as long as the slowest
+     * section. A summary not done within the configured timeout is abandoned: its queued sections are
+     * cancelled, while a section already running cannot be interrupted and keeps its pool thread until
+     * its queries return, which the size of the pool bounds.
+     */
+    public OwnerSummary getOwnerSummary(long ownerId, int top) {
+        if (top <= 0) {
+            throw new ValidationException("Incorrect page query");
+        }
+        if (userRepository.findById(ownerId).isEmpty()) {
+            throw new NotFoundException("No such user was found");
+        }
+        List<CompletableFuture<?>> sections = new ArrayList<>(4);
+        try {
+            var items = supply(sections, () -> new SummarySection<>(itemService.countUserItems(ownerId),
+                    itemService.getUserItems(0, top, ownerId)));
+            var waitingBookings = supply(sections, () -> new SummarySection<>(
+                    bookingService.countUsersItemsBookings(ownerId, State.WAITING.name()),
+                    bookingService.getAllUsersItemsBookings(0, top, ownerId, State.WAITING.name())));
+            var currentBookings = supply(sections, () -> new SummarySection<>(
+                    bookingService.countUsersItemsBookings(ownerId, State.CURRENT.name()),
+                    bookingService.getAllUsersItemsBookings(0, top, ownerId, State.CURRENT.name())));
+            var requests = supply(sections, () -> new SummarySection<>(itemRequestService.countOtherUsersRequests(ownerId),
+                    itemRequestService.findAllRequests(0, top, ownerId)));
+            long deadline = System.nanoTime() + timeout.toNanos();
+            return new OwnerSummary(await(items, deadline), await(waitingBookings, deadline),
+                    await(currentBookings, deadline), await(requests, deadline));
+        } finally {
+            sections.forEach(section -> section.cancel(false));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor summaryExecutor(SummaryProperties properties) {
+        ThreadPoolTaskExecutor summaryExecutor = new ThreadPoolTaskExecutor();
+        summaryExecutor.setCorePoolSize(properties.getThreads());
+        summaryExecutor.setMaxPoolSize(properties.getThreads());
+        summaryExecutor.setQueueCapacity(properties.getQueueCapacity());
+        summaryExecutor.setThreadNamePrefix("summary-");
+        summaryExecutor.initialize();
+        return summaryExecutor;
+    }
+
+    /**
+     * Adds the submitted section to {@code sections}, so that it is cancelled if a later one is rejected.
+     */
+    private <T> CompletableFuture<T> supply(List<CompletableFuture<?>> sections, Supplier<T> section) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(section, executor);
+        sections.add(future);
+        return future;
+    }
+
+    private static <T> T await(CompletableFuture<T> section, long deadline) {
+        try {
+            return section.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new UnavailableException("Summary took too long, try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnavailableException("Summary was interrupted");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * A response body of newline delimited JSON written while {@code export} produces the values, off
+ * the request thread. Nothing is buffered beyond the servlet output buffer.
+ */
+public class NdjsonBody<T> implements StreamingResponseBody {
+    private final ObjectMapper objectMapper;
+    private final Consumer<Consumer<T>> export;
+
+    private NdjsonBody(ObjectMapper objectMapper, Consumer<Consumer<T>> export) {
+        this.objectMapper = objectMapper;
+        this.export = export;
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Consumer<Consumer<T>> export) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(new NdjsonBody<>(objectMapper, export));
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) {
+        export.accept(value -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(value));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
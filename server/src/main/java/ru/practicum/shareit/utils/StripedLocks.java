@@ -0,0 +1,23 @@
+package ru.practicum.shareit.utils;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed number of locks shared between keys by hash: work on one key is serialized
+ * without keeping a lock per key, at the price of unrelated keys sometimes waiting for each other.
+ */
+public class StripedLocks {
+    private final Lock[] locks;
+
+    public StripedLocks(int stripes) {
+        locks = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(long key) {
+        return locks[Math.floorMod(Long.hashCode(key), locks.length)];
+    }
+}
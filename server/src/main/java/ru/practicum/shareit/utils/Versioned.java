@@ -0,0 +1,10 @@
+package ru.practicum.shareit.utils;
+
+/**
+ * A representation built from versioned entities. The tag changes whenever one of them is updated
+ * or the representation starts referring to other entities, so it can back a strong ETag.
+ */
+public interface Versioned {
+
+    String versionTag();
+}
@@ -0,0 +1,14 @@
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_time DESC);
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_time DESC);
+CREATE INDEX IF NOT EXISTS bookings_booker_end_idx ON bookings (booker_id, end_time);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_time DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_time);
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_time);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created);
+
+CREATE INDEX IF NOT EXISTS requests_owner_created_idx ON requests (owner_id, created);
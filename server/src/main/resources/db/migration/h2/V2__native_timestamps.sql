@@ -0,0 +1,4 @@
+ALTER TABLE bookings ALTER COLUMN start_time SET DATA TYPE TIMESTAMP;
+ALTER TABLE bookings ALTER COLUMN end_time SET DATA TYPE TIMESTAMP;
+
+ALTER TABLE comments ALTER COLUMN created SET DATA TYPE TIMESTAMP;
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS bookings_booker_start_id_idx ON bookings (booker_id, start_time DESC, id DESC);
+DROP INDEX IF EXISTS bookings_booker_start_idx;
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_id_idx ON bookings (item_id, start_time DESC, id DESC);
+DROP INDEX IF EXISTS bookings_item_start_idx;
@@ -0,0 +1,6 @@
+ALTER TABLE bookings
+    ALTER COLUMN start_time TYPE TIMESTAMP USING start_time::timestamp,
+    ALTER COLUMN end_time TYPE TIMESTAMP USING end_time::timestamp;
+
+ALTER TABLE comments
+    ALTER COLUMN created TYPE TIMESTAMP USING created::timestamp;
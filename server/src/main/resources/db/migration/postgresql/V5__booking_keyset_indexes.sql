@@ -0,0 +1,8 @@
+-- Built without blocking writes; only these keyset indexes are new, the V3 and V4 ones keep their blocking builds.
+-- A CONCURRENTLY build that is interrupted leaves an INVALID index behind, which IF NOT EXISTS would keep:
+-- drop it before rerunning the migration.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_booker_start_id_idx ON bookings (booker_id, start_time DESC, id DESC);
+DROP INDEX CONCURRENTLY IF EXISTS bookings_booker_start_idx;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_start_id_idx ON bookings (item_id, start_time DESC, id DESC);
+DROP INDEX CONCURRENTLY IF EXISTS bookings_item_start_idx;
@@ -0,0 +1,38 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Blocking: adding the constraint takes an ACCESS EXCLUSIVE lock on bookings and holds it while the gist index
+-- is built, so every booking read and write waits for the build. Unlike the indexes of V5, an exclusion
+-- constraint cannot be attached to an index built CONCURRENTLY beforehand, so run this in a quiet window.
+-- lock_timeout makes the migration fail and roll back instead of queueing all booking queries behind it while
+-- a long transaction holds the table; rerun it once that transaction is gone.
+SET LOCAL lock_timeout = '10s';
+
+-- Databases written before this constraint can already hold double bookings, which would make adding it fail.
+-- Approval time is not recorded, so the booking created first (lowest id) keeps the slot: approved bookings are
+-- visited in id order and each one overlapping a still approved booking with a lower id is rejected. Visiting in
+-- order matters for chains: a booking overlapping only an already rejected one stays approved. Only bookings
+-- overlapping an earlier approved one are visited, all others keep their slot whatever happens to the rest.
+DO $$
+DECLARE
+    candidate RECORD;
+BEGIN
+    FOR candidate IN
+        SELECT b.id FROM bookings b
+        WHERE b.status = 'APPROVED'
+          AND EXISTS (SELECT 1 FROM bookings o
+                      WHERE o.item_id = b.item_id AND o.status = 'APPROVED' AND o.id < b.id
+                        AND o.start_time < b.end_time AND b.start_time < o.end_time)
+        ORDER BY b.id
+    LOOP
+        UPDATE bookings b SET status = 'REJECTED', version = b.version + 1
+        WHERE b.id = candidate.id
+          AND EXISTS (SELECT 1 FROM bookings o
+                      WHERE o.item_id = b.item_id AND o.status = 'APPROVED' AND o.id < b.id
+                        AND o.start_time < b.end_time AND b.start_time < o.end_time);
+    END LOOP;
+END $$;
+
+-- approved bookings of one item never overlap, even when written by several server instances
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_approved_no_overlap;
+ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&) WHERE (status = 'APPROVED');
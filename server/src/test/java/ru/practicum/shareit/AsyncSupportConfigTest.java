@@ -0,0 +1,76 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@WebMvcTest(value = ItemController.class, properties = {
+        "shareit.export.threads=1",
+        "shareit.export.queue-capacity=0",
+        "shareit.export.timeout=2s"})
+class AsyncSupportConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ItemService itemService;
+
+    @SneakyThrows
+    @Test
+    void exportRunsOnExportPoolWithTimeout() {
+        var threadName = new AtomicReference<String>();
+        Mockito.doAnswer(invocation -> {
+            threadName.set(Thread.currentThread().getName());
+            return null;
+        }).when(itemService).exportUserItems(ArgumentMatchers.eq(1L), ArgumentMatchers.any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/items/export").header("X-Sharer-User-Id", "1"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        assertEquals(2000L, result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assertTrue(threadName.get().startsWith("export-"));
+    }
+
+    @SneakyThrows
+    @Test
+    void exportRejectedWhenPoolIsFull() {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(itemService).exportUserItems(ArgumentMatchers.eq(1L), ArgumentMatchers.any());
+
+        MvcResult running = mockMvc.perform(MockMvcRequestBuilders.get("/items/export").header("X-Sharer-User-Id", "1"))
+                .andReturn();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get("/items/export").header("X-Sharer-User-Id", "1"))
+                    .andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+        } finally {
+            release.countDown();
+        }
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(running))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+@WebMvcTest(ItemController.class)
+class ETagAdviceTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ItemService itemService;
+
+    @SneakyThrows
+    @Test
+    void getItemByIdNotModified() {
+        var dto = new ItemDto();
+        dto.setId(2L);
+        Mockito.when(itemService.getItemById(2L, 1L)).thenReturn(dto);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 2L).header("X-Sharer-User-Id", "1")
+                        .header("If-None-Match", getItemETag()))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemByIdChangedVersion() {
+        var dto = new ItemDto();
+        dto.setId(2L);
+        Mockito.when(itemService.getItemById(2L, 1L)).thenReturn(dto);
+        String eTag = getItemETag();
+
+        dto.setVersion(1L);
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 2L).header("X-Sharer-User-Id", "1")
+                        .header("If-None-Match", eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists("ETag"))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(dto)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemByIdOtherETag() {
+        var dto = new ItemDto();
+        dto.setId(2L);
+        Mockito.when(itemService.getItemById(2L, 1L)).thenReturn(dto);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 2L).header("X-Sharer-User-Id", "1")
+                        .header("If-None-Match", "\"other\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(dto)));
+    }
+
+    @SneakyThrows
+    private String getItemETag() {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 2L).header("X-Sharer-User-Id", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.service.ItemService;
+
+@WebMvcTest({ItemController.class, BookingController.class})
+class NdjsonExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ItemService itemService;
+    @MockBean
+    private BookingService bookingService;
+
+    @SneakyThrows
+    @Test
+    void exportBookingsOfUnknownUserIsNotFound() {
+        Mockito.doThrow(new NotFoundException("No such user was found")).when(bookingService).checkUserExists(9L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/export").header("X-Sharer-User-Id", "9"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json("{\"error\":\"No such user was found\"}"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/owner/export").header("X-Sharer-User-Id", "9"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        Mockito.verify(bookingService, Mockito.never()).exportUserBookings(ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+        Mockito.verify(bookingService, Mockito.never()).exportUsersItemsBookings(ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+
+    @SneakyThrows
+    @Test
+    void exportItemsOfUnknownUserIsConflict() {
+        Mockito.doThrow(new ConflictException("No such user was found")).when(itemService).checkUserExists(9L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/export").header("X-Sharer-User-Id", "9"))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.content().json("{\"error\":\"No such user was found\"}"));
+
+        Mockito.verify(itemService, Mockito.never()).exportUserItems(ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+}
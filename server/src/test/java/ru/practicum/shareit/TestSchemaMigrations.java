@@ -0,0 +1,57 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+public class TestSchemaMigrations {
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testRestartAppliesNothing() {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+    }
+
+    @Test
+    void testCleanDisabled() {
+        assertThrows(FlywayException.class, flyway::clean);
+    }
+
+    @Test
+    void testIdsComeFromSequences() {
+        for (String table : List.of("USERS", "REQUESTS", "ITEMS", "BOOKINGS", "COMMENTS")) {
+            assertEquals("NO", jdbcTemplate.queryForObject("SELECT IS_IDENTITY FROM INFORMATION_SCHEMA.COLUMNS "
+                    + "WHERE TABLE_NAME = ? AND COLUMN_NAME = 'ID'", String.class, table));
+        }
+
+        jdbcTemplate.update("INSERT INTO users (email, name) VALUES ('sql@mail.ru', 'sql')");
+        Long sqlId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'sql@mail.ru'", Long.class);
+        User user = new User();
+        user.setEmail("jpa@mail.ru");
+        user.setName("jpa");
+
+        assertNotEquals(sqlId, userRepository.saveAndFlush(user).getId());
+    }
+}
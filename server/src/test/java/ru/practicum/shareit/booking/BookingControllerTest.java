@@ -10,6 +10,7 @@ import ru.practicum.shareit.booking.model.dto.BookingDto;
 import ru.practicum.shareit.booking.model.dto.BookingIncome;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -55,7 +56,7 @@ class BookingControllerTest {
         List<BookingDto> expectedList = List.of(new BookingDto());
         Mockito.when(bookingService.getAllUserBookings(1, 1, 3, "ALL")).thenReturn(expectedList);
 
-        var result = bookingController.getAllBookings(1, 1, 3, "ALL");
+        var result = bookingController.getAllBookings(1, 1, 3, "ALL", null, null);
 
         assertEquals(expectedList, result);
     }
@@ -65,8 +66,30 @@ class BookingControllerTest {
         List<BookingDto> expectedList = List.of(new BookingDto());
         Mockito.when(bookingService.getAllUsersItemsBookings(1, 1, 3, "ALL")).thenReturn(expectedList);
 
-        var result = bookingController.getAllBookingsByOwner(1, 1, 3, "ALL");
+        var result = bookingController.getAllBookingsByOwner(1, 1, 3, "ALL", null, null);
 
         assertEquals(expectedList, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllBookingsAfterCursor() {
+        LocalDateTime afterStart = LocalDateTime.now();
+        List<BookingDto> expectedList = List.of(new BookingDto());
+        Mockito.when(bookingService.getAllUserBookingsAfter(afterStart, 5L, 1, 3, "ALL")).thenReturn(expectedList);
+
+        var result = bookingController.getAllBookings(0, 1, 3, "ALL", afterStart, 5L);
+
+        assertEquals(expectedList, result);
+    }
+
+    @Test
+    void getAllBookingsByOwnerAfterCursor() {
+        LocalDateTime afterStart = LocalDateTime.now();
+        List<BookingDto> expectedList = List.of(new BookingDto());
+        Mockito.when(bookingService.getAllUsersItemsBookingsAfter(afterStart, 5L, 1, 3, "ALL")).thenReturn(expectedList);
+
+        var result = bookingController.getAllBookingsByOwner(0, 1, 3, "ALL", afterStart, 5L);
+
+        assertEquals(expectedList, result);
+    }
+}
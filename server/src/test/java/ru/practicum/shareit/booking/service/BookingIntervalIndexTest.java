@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingIntervalIndexTest {
+    private final BookingIntervalIndex index = new BookingIntervalIndex();
+
+    @Test
+    void isFreeAroundApproved() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = start.plusDays(1);
+        index.add(1L, start, end);
+
+        assertFalse(index.isFree(1L, start.minusHours(1), start.plusHours(1)));
+        assertFalse(index.isFree(1L, start.plusHours(1), end.plusHours(1)));
+        assertTrue(index.isFree(1L, start.minusHours(1), start));
+        assertTrue(index.isFree(1L, end, end.plusHours(1)));
+        assertTrue(index.isFree(2L, start, end));
+    }
+
+    @Test
+    void addSkipsEnded() {
+        index.add(1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void addPrunesEnded() {
+        var now = LocalDateTime.now();
+        index.add(1L, now.minusHours(1), now.plusNanos(20_000_000));
+        pause();
+        index.add(1L, now.plusDays(1), now.plusDays(2));
+
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void isFreePrunesEnded() {
+        var now = LocalDateTime.now();
+        index.add(1L, now.minusHours(1), now.plusNanos(20_000_000));
+        pause();
+
+        assertTrue(index.isFree(1L, now.minusHours(1), now));
+        assertEquals(0, index.size());
+    }
+
+    @SneakyThrows
+    private static void pause() {
+        Thread.sleep(100);
+    }
+}
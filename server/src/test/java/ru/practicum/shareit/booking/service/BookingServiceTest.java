@@ -4,32 +4,38 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.model.dto.BookingIncome;
+import ru.practicum.shareit.booking.model.dto.BookingIntervalView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.LockedException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.item.service.ItemMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.model.dto.UserId;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.OffsetPageRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
 
@@ -44,9 +50,9 @@ class BookingServiceTest {
     @InjectMocks
     private BookingService bookingService;
     @Spy
-    private ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
-    @Spy
     private BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+    @Spy
+    private BookingIntervalIndex bookingIntervalIndex = new BookingIntervalIndex();
     private User owner;
     private User booker;
     private Item item;
@@ -76,23 +82,201 @@ class BookingServiceTest {
         bookingIncome.setStart(start);
         bookingIncome.setEnd(end);
 
-        UserId userId = new UserId();
-        userId.setId(2L);
-        Booking bookingDto = new Booking();
-        bookingDto.setId(0L);
-        bookingDto.setStart(start);
-        bookingDto.setEnd(end);
-        bookingDto.setItem(item);
-        bookingDto.setStatus(Status.WAITING);
-        bookingDto.setBooker(booker);
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        bookingService.addBooking(bookingIncome, 2L);
+
+        ArgumentCaptor<Booking> saved = ArgumentCaptor.forClass(Booking.class);
+        verify(bookingRepository).save(saved.capture());
+        assertNull(saved.getValue().getId());
+        assertEquals(start, saved.getValue().getStart());
+        assertEquals(end, saved.getValue().getEnd());
+        assertEquals(item, saved.getValue().getItem());
+        assertEquals(booker, saved.getValue().getBooker());
+        assertEquals(Status.WAITING, saved.getValue().getStatus());
+    }
+
+    @Test
+    void addBookingThrowConflictExceptionWhenOverlapsApproved() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = LocalDateTime.now().plusDays(2);
+        item.setAvailable(true);
+
+        BookingIncome bookingIncome = new BookingIncome();
+        bookingIncome.setItemId(1L);
+        bookingIncome.setStart(start);
+        bookingIncome.setEnd(end);
 
+        bookingIntervalIndex.add(1L, start.minusHours(1), start.plusHours(1));
 
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        var exception = assertThrows(ConflictException.class, () -> bookingService.addBooking(bookingIncome, 2L));
+        assertEquals("Item is already booked for this time", exception.getMessage());
+        verify(bookingRepository, Mockito.never()).findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(
+                Mockito.anyLong(), Mockito.any(), Mockito.any());
+        verify(bookingRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void addBookingThrowConflictExceptionWhenApprovedElsewhere() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = LocalDateTime.now().plusDays(2);
+        item.setAvailable(true);
+
+        BookingIncome bookingIncome = new BookingIncome();
+        bookingIncome.setItemId(1L);
+        bookingIncome.setStart(start);
+        bookingIncome.setEnd(end);
+
+        Booking approved = new Booking();
+        approved.setStart(start.minusHours(1));
+        approved.setEnd(start.plusHours(1));
+
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        Mockito.when(bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(1L, Status.APPROVED, end))
+                .thenReturn(Optional.of(approved));
+
+        var exception = assertThrows(ConflictException.class, () -> bookingService.addBooking(bookingIncome, 2L));
+        assertEquals("Item is already booked for this time", exception.getMessage());
+        verify(bookingRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void addBookingSuccessBetweenApproved() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = LocalDateTime.now().plusDays(2);
+        item.setAvailable(true);
+
+        BookingIncome bookingIncome = new BookingIncome();
+        bookingIncome.setItemId(1L);
+        bookingIncome.setStart(start);
+        bookingIncome.setEnd(end);
+
+        bookingIntervalIndex.add(1L, start.minusHours(2), start);
+        bookingIntervalIndex.add(1L, end, end.plusHours(2));
+
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
         bookingService.addBooking(bookingIncome, 2L);
 
+        verify(bookingRepository).save(Mockito.any());
+    }
+
+    @Test
+    void addBookingsReturnsResultPerEntry() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = start.plusDays(1);
+        item.setAvailable(true);
+        item.setName("Item");
+
+        BookingIncome valid = new BookingIncome();
+        valid.setItemId(1L);
+        valid.setStart(start);
+        valid.setEnd(end);
+        BookingIncome missingItem = new BookingIncome();
+        missingItem.setItemId(9L);
+        missingItem.setStart(start);
+        missingItem.setEnd(end);
+        BookingIncome wrongTime = new BookingIncome();
+        wrongTime.setItemId(1L);
+        wrongTime.setStart(end);
+        wrongTime.setEnd(start);
+
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        Mockito.when(itemRepository.findAllById(Set.of(1L, 9L))).thenReturn(List.of(item));
+        Mockito.when(bookingRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(it -> it.setId(5L));
+            return bookings;
+        });
+
+        var results = bookingService.addBookings(List.of(missingItem, valid, wrongTime), 2L);
+
+        assertEquals(3, results.size());
+        assertEquals(404, results.get(0).getStatus());
+        assertEquals("No such item was found", results.get(0).getError());
+        assertEquals(200, results.get(1).getStatus());
+        assertEquals(5L, results.get(1).getBooking().getId());
+        assertEquals(Status.WAITING, results.get(1).getBooking().getStatus());
+        assertEquals(400, results.get(2).getStatus());
+        assertEquals("Wrong time", results.get(2).getError());
+    }
+
+    @Test
+    void addBookingsChecksOverlapsWithOneQuery() {
+        var start = LocalDateTime.now().plusDays(1);
+        item.setAvailable(true);
+
+        BookingIncome overlapping = new BookingIncome();
+        overlapping.setItemId(1L);
+        overlapping.setStart(start);
+        overlapping.setEnd(start.plusDays(2));
+        BookingIncome free = new BookingIncome();
+        free.setItemId(1L);
+        free.setStart(start.plusDays(3));
+        free.setEnd(start.plusDays(4));
+        BookingIntervalView approved = new BookingIntervalView() {
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start.plusDays(1);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return start.plusDays(3);
+            }
+        };
+
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        Mockito.when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        Mockito.when(bookingRepository.findIntervalsByItemIdsAndStatusOverlapping(Set.of(1L), Status.APPROVED,
+                start, start.plusDays(4))).thenReturn(List.of(approved));
+        Mockito.when(bookingRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var results = bookingService.addBookings(List.of(overlapping, free), 2L);
+
+        assertEquals(409, results.get(0).getStatus());
+        assertEquals("Item is already booked for this time", results.get(0).getError());
+        assertEquals(200, results.get(1).getStatus());
+        verify(bookingRepository, Mockito.never()).findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(
+                Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void addBookingsThrowNotFoundExceptionForUnknownUser() {
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.addBookings(List.of(new BookingIncome()), 2L));
+    }
+
+    @Test
+    void addBookingsThrowValidationExceptionForOversizeBatch() {
+        List<BookingIncome> bookingIncomes = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            bookingIncomes.add(new BookingIncome());
+        }
+
+        assertThrows(ValidationException.class, () -> bookingService.addBookings(bookingIncomes, 2L));
+        assertThrows(ValidationException.class, () -> bookingService.addBookings(List.of(), 2L));
+    }
 
-        verify(bookingRepository).save(bookingDto);
+    @Test
+    void addBookingsThrowValidationExceptionForNullEntry() {
+        List<BookingIncome> bookingIncomes = new ArrayList<>();
+        bookingIncomes.add(new BookingIncome());
+        bookingIncomes.add(null);
+
+        var exception = assertThrows(ValidationException.class, () -> bookingService.addBookings(bookingIncomes, 2L));
+        assertEquals("Invalid bookings at positions [1]", exception.getMessage());
     }
 
     @Test
@@ -109,7 +293,7 @@ class BookingServiceTest {
         bookingIncome.setEnd(end);
 
 
-        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         var exception = assertThrows(NotFoundException.class,
                 () -> bookingService.addBooking(bookingIncome, 1L));
@@ -164,14 +348,17 @@ class BookingServiceTest {
         booking.setStatus(Status.WAITING);
         booking.setId(1L);
         booking.setItem(item);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
 
         Mockito.when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        Mockito.when(bookingRepository.updateStatus(1L, Status.WAITING, Status.APPROVED)).thenReturn(1);
 
-        bookingService.approveBooking(1L, true, 1L);
+        var result = bookingService.approveBooking(1L, true, 1L);
 
-        booking.setStatus(Status.APPROVED);
-        verify(bookingRepository).save(booking);
+        assertEquals(Status.APPROVED, result.getStatus());
+        assertEquals(1L, result.getVersion());
+        assertFalse(bookingIntervalIndex.isFree(1L, booking.getStart(), booking.getEnd()));
     }
 
     @Test
@@ -182,12 +369,12 @@ class BookingServiceTest {
         booking.setItem(item);
 
         Mockito.when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        Mockito.when(bookingRepository.updateStatus(1L, Status.WAITING, Status.REJECTED)).thenReturn(1);
 
-        bookingService.approveBooking(1L, false, 1L);
+        var result = bookingService.approveBooking(1L, false, 1L);
 
-        booking.setStatus(Status.REJECTED);
-        verify(bookingRepository).save(booking);
+        assertEquals(Status.REJECTED, result.getStatus());
+        assertEquals(1L, result.getVersion());
     }
 
     @Test
@@ -199,7 +386,6 @@ class BookingServiceTest {
         booking.setId(1L);
         booking.setItem(item);
         Mockito.when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         var exception = assertThrows(NotFoundException.class, () -> bookingService.approveBooking(1L, true, 1L));
         assertEquals("Request denied, you don't have access rights", exception.getMessage());
@@ -213,13 +399,49 @@ class BookingServiceTest {
         booking.setItem(item);
 
         Mockito.when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         var exception = assertThrows(LockedException.class,
                 () -> bookingService.approveBooking(1L, true, 1L));
         assertEquals("You cant change status twice", exception.getMessage());
     }
 
+    @Test
+    void approveBookingThrowLockedExceptionWhenChangedConcurrently() {
+        Booking booking = new Booking();
+        booking.setStatus(Status.WAITING);
+        booking.setId(1L);
+        booking.setItem(item);
+
+        Mockito.when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        Mockito.when(bookingRepository.updateStatus(1L, Status.WAITING, Status.APPROVED)).thenReturn(0);
+
+        var exception = assertThrows(LockedException.class,
+                () -> bookingService.approveBooking(1L, true, 1L));
+        assertEquals("You cant change status twice", exception.getMessage());
+    }
+
+    @Test
+    void approveBookingThrowConflictExceptionWhenOverlapsApproved() {
+        Booking booking = new Booking();
+        booking.setStatus(Status.WAITING);
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+
+        Booking approved = new Booking();
+        approved.setStart(booking.getStart().plusHours(1));
+        approved.setEnd(booking.getEnd().plusHours(1));
+        approved.setStatus(Status.APPROVED);
+
+        Mockito.when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        Mockito.when(bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(1L, Status.APPROVED, booking.getEnd()))
+                .thenReturn(Optional.of(approved));
+
+        assertThrows(ConflictException.class, () -> bookingService.approveBooking(1L, true, 1L));
+        verify(bookingRepository, Mockito.never()).updateStatus(Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
     @Test
     void getBookingSuccess() {
         Booking booking = new Booking();
@@ -228,7 +450,6 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         var result = bookingService.getBooking(1L, 1L);
 
@@ -243,7 +464,6 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
 
         var result = assertThrows(NotFoundException.class, () -> bookingService.getBooking(3L, 1L));
@@ -258,7 +478,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
-        Mockito.when(bookingRepository.findByItem_OwnerAndStartBeforeAndEndAfter(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class)))
+        Mockito.when(bookingRepository.findByItem_OwnerAndStartBeforeAndEndAfter(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUsersItemsBookings(0, 2, 1L, "CURRENT");
@@ -274,7 +494,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByItem_OwnerAndEndBefore(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class)))
+        Mockito.when(bookingRepository.findByItem_OwnerAndEndBefore(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUsersItemsBookings(0, 2, 2L, "PAST");
@@ -290,7 +510,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByItem_OwnerAndStartAfter(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class)))
+        Mockito.when(bookingRepository.findByItem_OwnerAndStartAfter(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUsersItemsBookings(0, 2, 2L, "FUTURE");
@@ -306,7 +526,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByItem_OwnerAndStatus(booker, Status.WAITING, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start"))))
+        Mockito.when(bookingRepository.findByItem_OwnerAndStatus(booker, Status.WAITING, OffsetPageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")))))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUsersItemsBookings(0, 2, 2L, "WAITING");
@@ -322,7 +542,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByItem_OwnerAndStatus(booker, Status.REJECTED, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start"))))
+        Mockito.when(bookingRepository.findByItem_OwnerAndStatus(booker, Status.REJECTED, OffsetPageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")))))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUsersItemsBookings(0, 2, 2L, "REJECTED");
@@ -338,7 +558,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByItem_Owner(booker, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start"))))
+        Mockito.when(bookingRepository.findByItem_Owner(booker, OffsetPageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")))))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUsersItemsBookings(0, 2, 2L, "ALL");
@@ -376,7 +596,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByBookerAndStartBeforeAndEndAfter(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class)))
+        Mockito.when(bookingRepository.findByBookerAndStartBeforeAndEndAfter(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUserBookings(0, 2, 2L, "CURRENT");
@@ -392,7 +612,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByBookerAndEndBefore(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class)))
+        Mockito.when(bookingRepository.findByBookerAndEndBefore(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUserBookings(0, 2, 2L, "PAST");
@@ -408,7 +628,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByBookerAndStartAfter(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class)))
+        Mockito.when(bookingRepository.findByBookerAndStartAfter(Mockito.any(User.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUserBookings(0, 2, 2L, "FUTURE");
@@ -424,7 +644,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByBookerAndStatus(booker, Status.WAITING, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start"))))
+        Mockito.when(bookingRepository.findByBookerAndStatus(booker, Status.WAITING, OffsetPageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")))))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUserBookings(0, 2, 2L, "WAITING");
@@ -440,7 +660,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByBookerAndStatus(booker, Status.REJECTED, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start"))))
+        Mockito.when(bookingRepository.findByBookerAndStatus(booker, Status.REJECTED, OffsetPageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")))))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUserBookings(0, 2, 2L, "REJECTED");
@@ -456,7 +676,7 @@ class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        Mockito.when(bookingRepository.findByBooker(booker, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start"))))
+        Mockito.when(bookingRepository.findByBooker(booker, OffsetPageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")))))
                 .thenReturn(List.of(booking));
 
         var result = bookingService.getAllUserBookings(0, 2, 2L, "ALL");
@@ -464,6 +684,80 @@ class BookingServiceTest {
         assertEquals(List.of(bookingMapper.toDTO(booking)), result);
     }
 
+    @Test
+    void getAllUserBookingsUsesOffset() {
+        Booking booking = new Booking();
+        booking.setStatus(Status.WAITING);
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        Mockito.when(bookingRepository.findByBooker(booker, OffsetPageRequest.of(3, 2, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")))))
+                .thenReturn(List.of(booking));
+
+        var result = bookingService.getAllUserBookings(3, 2, 2L, "ALL");
+
+        assertEquals(List.of(bookingMapper.toDTO(booking)), result);
+    }
+
+    @Test
+    void getAllUserBookingsAfterSuccessWaiting() {
+        Booking booking = new Booking();
+        booking.setStatus(Status.WAITING);
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        LocalDateTime afterStart = LocalDateTime.now();
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        Mockito.when(bookingRepository.findAfterCursor(Mockito.any(), Mockito.eq(afterStart), Mockito.eq(5L), Mockito.eq(2)))
+                .thenReturn(List.of(booking));
+
+        var result = bookingService.getAllUserBookingsAfter(afterStart, 5L, 2, 2L, "WAITING");
+
+        assertEquals(List.of(bookingMapper.toDTO(booking)), result);
+    }
+
+    @Test
+    void getAllUsersItemsBookingsAfterSuccessPast() {
+        Booking booking = new Booking();
+        booking.setStatus(Status.APPROVED);
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        LocalDateTime afterStart = LocalDateTime.now();
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        Mockito.when(bookingRepository.findAfterCursor(Mockito.any(), Mockito.eq(afterStart), Mockito.eq(5L), Mockito.eq(2)))
+                .thenReturn(List.of(booking));
+
+        var result = bookingService.getAllUsersItemsBookingsAfter(afterStart, 5L, 2, 1L, "PAST");
+
+        assertEquals(List.of(bookingMapper.toDTO(booking)), result);
+    }
+
+    @Test
+    void getAllUserBookingsAfterFailValidation() {
+        var result = assertThrows(ValidationException.class,
+                () -> bookingService.getAllUserBookingsAfter(LocalDateTime.now(), null, 2, 2L, "ALL"));
+        assertEquals("Incorrect page query", result.getMessage());
+    }
+
+    @Test
+    void getAllUserBookingsThrowNotFoundException() {
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        var result = assertThrows(NotFoundException.class,
+                () -> bookingService.getAllUserBookings(0, 2, 2L, "ALL"));
+
+        assertEquals("No such user was found", result.getMessage());
+    }
+
+    @Test
+    void checkUserExistsThrowNotFoundExceptionForUnknownUser() {
+        Mockito.when(userRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.checkUserExists(9L));
+    }
+
     @Test
     void getAllUserBookingsFailValidation() {
         var result = assertThrows(ValidationException.class,
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,19 +8,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.OffsetPageRequest;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -88,6 +96,52 @@ public class TestBookingRepository {
         assertTrue(res);
     }
 
+    @Test
+    public void testUpdateStatusOnlyOnce() {
+        assertEquals(1, bookingRepository.updateStatus(booking.getId(), Status.WAITING, Status.APPROVED));
+        assertEquals(0, bookingRepository.updateStatus(booking.getId(), Status.WAITING, Status.REJECTED));
+        em.clear();
+
+        var res = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(Status.APPROVED, res.getStatus());
+        assertEquals(1, res.getVersion());
+    }
+
+    @Test
+    public void testFindIntervalsByItemIdsAndStatusOverlapping() {
+        var start = booking.getEnd().plusDays(1).truncatedTo(ChronoUnit.MILLIS);
+        bookingRepository.save(createApproved(start, start.plusDays(1)));
+        bookingRepository.save(createApproved(start.plusDays(2), start.plusDays(3)));
+
+        var overlapping = bookingRepository.findIntervalsByItemIdsAndStatusOverlapping(List.of(item.getId()),
+                Status.APPROVED, start.plusHours(12), start.plusDays(2));
+
+        assertEquals(1, overlapping.size());
+        assertEquals(item.getId(), overlapping.get(0).getItemId());
+        assertEquals(start, overlapping.get(0).getStart());
+    }
+
+    @Test
+    public void testFindLatestApprovedStartingBefore() {
+        booking.setStatus(Status.APPROVED);
+        booking.setStart(booking.getStart().truncatedTo(ChronoUnit.MILLIS));
+        bookingRepository.save(booking);
+        var laterStart = booking.getEnd().plusDays(1).truncatedTo(ChronoUnit.MILLIS);
+        Booking later = createApproved(laterStart, laterStart.plusDays(1));
+        bookingRepository.save(later);
+
+        var beforeLater = bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(item.getId(),
+                Status.APPROVED, later.getStart());
+        var afterLater = bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(item.getId(),
+                Status.APPROVED, later.getEnd());
+        var beforeAll = bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(item.getId(),
+                Status.APPROVED, booking.getStart());
+
+        assertEquals(booking, beforeLater.orElseThrow());
+        assertEquals(later, afterLater.orElseThrow());
+        assertTrue(beforeAll.isEmpty());
+    }
+
     @Test
     public void testFindByBookerAndStatus() {
         var expectedBookings = List.of(booking);
@@ -107,4 +161,114 @@ public class TestBookingRepository {
 
         assertEquals(expectedBookings, res);
     }
+
+    @Test
+    public void testFindLastAndNextByItemIds() {
+        booking.setStatus(Status.APPROVED);
+        booking.setStart(LocalDateTime.now().minusDays(3));
+        booking.setEnd(LocalDateTime.now().minusDays(2));
+        bookingRepository.save(booking);
+        Booking earlier = createApproved(LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(4));
+        Booking next = createApproved(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        Booking later = createApproved(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4));
+        bookingRepository.saveAll(List.of(earlier, next, later));
+
+        var last = bookingRepository.findLastByItemIds(List.of(item.getId()), LocalDateTime.now());
+        var upcoming = bookingRepository.findNextByItemIds(List.of(item.getId()), LocalDateTime.now());
+
+        assertEquals(1, last.size());
+        assertEquals(item.getId(), last.get(0).getItemId());
+        assertEquals(booking.getId(), last.get(0).getId());
+        assertEquals(user.getId(), last.get(0).getBookerId());
+        assertEquals(1, upcoming.size());
+        assertEquals(next.getId(), upcoming.get(0).getId());
+    }
+
+    @Test
+    public void testFindByBookerAfterCursor() {
+        var start = booking.getStart().plusDays(1).truncatedTo(ChronoUnit.MILLIS);
+        var sameStart = bookingRepository.save(createApproved(start, start.plusDays(1)));
+        var sameStartLater = bookingRepository.save(createApproved(start, start.plusDays(2)));
+
+        var all = BookingSpecifications.inState(State.ALL, LocalDateTime.now());
+        var firstPage = bookingRepository.findAfterCursor(BookingSpecifications.bookedBy(user).and(all),
+                start.plusYears(1), Long.MAX_VALUE, 2);
+        var last = firstPage.get(firstPage.size() - 1);
+        var secondPage = bookingRepository.findAfterCursor(BookingSpecifications.bookedBy(user).and(all),
+                last.getStart(), last.getId(), 2);
+        var ownerPage = bookingRepository.findAfterCursor(BookingSpecifications.ofItemsOf(owner).and(all),
+                last.getStart(), last.getId(), 2);
+        var waitingPage = bookingRepository.findAfterCursor(BookingSpecifications.ofItemsOf(owner)
+                        .and(BookingSpecifications.inState(State.WAITING, LocalDateTime.now())),
+                start.plusYears(1), Long.MAX_VALUE, 2);
+
+        assertEquals(List.of(sameStartLater, sameStart), firstPage);
+        assertEquals(List.of(booking), secondPage);
+        assertEquals(List.of(booking), ownerPage);
+        assertEquals(List.of(booking), waitingPage);
+    }
+
+    @Test
+    public void testFindByBookerWithOffset() {
+        var start = booking.getStart().plusDays(1);
+        var second = bookingRepository.save(createApproved(start, start.plusDays(1)));
+        var first = bookingRepository.save(createApproved(start.plusDays(1), start.plusDays(2)));
+
+        var res = bookingRepository.findByBooker(user, OffsetPageRequest.of(1, 1, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id"))));
+
+        assertEquals(List.of(second), res);
+        assertTrue(first.getStart().isAfter(second.getStart()));
+    }
+
+    @Test
+    public void testFindByBookerWithOffsetOrdersSameStartById() {
+        var start = booking.getStart().plusDays(1);
+        var lower = bookingRepository.save(createApproved(start, start.plusDays(1)));
+        var higher = bookingRepository.save(createApproved(start, start.plusDays(2)));
+        var sort = Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        var firstPage = bookingRepository.findByBooker(user, OffsetPageRequest.of(0, 1, sort));
+        var secondPage = bookingRepository.findByBooker(user, OffsetPageRequest.of(1, 1, sort));
+
+        assertEquals(List.of(higher), firstPage);
+        assertEquals(List.of(lower), secondPage);
+    }
+
+    @Test
+    public void testFindByBookerFetchesOnlyItem() {
+        em.flush();
+        em.clear();
+
+        var res = bookingRepository.findByBooker(user, pageRequest);
+
+        assertTrue(Hibernate.isInitialized(res.get(0).getItem()));
+        assertFalse(Hibernate.isInitialized(res.get(0).getBooker()));
+        assertFalse(Hibernate.isInitialized(res.get(0).getItem().getOwner()));
+    }
+
+    @Test
+    public void testStreamByItemOwnerLatestFirst() {
+        var start = booking.getStart().plusDays(1);
+        var later = bookingRepository.save(createApproved(start, start.plusDays(1)));
+        em.flush();
+        em.clear();
+
+        List<Booking> res;
+        try (var stream = bookingRepository.streamByItemOwner(owner)) {
+            res = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(List.of(later, booking), res);
+        assertTrue(Hibernate.isInitialized(res.get(0).getItem()));
+    }
+
+    private Booking createApproved(LocalDateTime start, LocalDateTime end) {
+        Booking approved = new Booking();
+        approved.setItem(item);
+        approved.setBooker(user);
+        approved.setStatus(Status.APPROVED);
+        approved.setStart(start);
+        approved.setEnd(end);
+        return approved;
+    }
 }
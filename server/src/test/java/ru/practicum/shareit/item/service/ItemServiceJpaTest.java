@@ -6,12 +6,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.ItemIncome;
 import ru.practicum.shareit.user.model.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -67,4 +69,25 @@ public class ItemServiceJpaTest {
 
         assertEquals(List.of(item), res);
     }
+
+    @Test
+    void exportUserItemsTest() {
+        UserDto userDto = new UserDto();
+        userDto.setEmail("email@email.com");
+        userDto.setName("Name");
+        var user = userService.createUser(userDto);
+        for (String name : List.of("First", "Second")) {
+            ItemIncome itemIncome = new ItemIncome();
+            itemIncome.setName(name);
+            itemIncome.setAvailable(true);
+            itemIncome.setDescription("Description");
+            service.createItem(itemIncome, user.getId());
+        }
+        List<ItemDto> exported = new ArrayList<>();
+
+        service.exportUserItems(user.getId(), exported::add);
+
+        assertEquals(service.getUserItems(0, 10, user.getId()), exported);
+        assertEquals(2, exported.size());
+    }
 }
@@ -9,20 +9,23 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.practicum.shareit.booking.model.dto.BookingForItem;
+import ru.practicum.shareit.booking.model.dto.BookingForItemView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingMapper;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.LockedException;
 import ru.practicum.shareit.exceptions.NoAuthorizationException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.dto.CommentDto;
 import ru.practicum.shareit.item.model.dto.CommentIncome;
+import ru.practicum.shareit.item.model.dto.CommentView;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.ItemIncome;
 import ru.practicum.shareit.item.repository.CommentRepository;
@@ -33,12 +36,17 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceTest {
@@ -61,6 +69,8 @@ class ItemServiceTest {
     private BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
     @Spy
     private CommentMapper commentMapper = Mappers.getMapper(CommentMapper.class);
+    @Spy
+    private BookingIntervalIndex bookingIntervalIndex = new BookingIntervalIndex();
     private User owner;
     private Item item;
     private ItemIncome itemIncome;
@@ -116,6 +126,7 @@ class ItemServiceTest {
         item.setId(0L);
 
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        Mockito.when(itemRepository.save(item)).thenReturn(item);
         var res = itemService.updateItem(itemIncome, 1L);
 
         assertEquals(itemMapper.toDTO(item, List.of()), res);
@@ -148,41 +159,22 @@ class ItemServiceTest {
         itemIncome.setAvailable(true);
 
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        Mockito.when(itemRepository.save(item)).thenReturn(item);
         var res = itemService.updateItem(itemIncome, 1L);
 
         assertEquals(itemMapper.toDTO(item, List.of()), res);
+        assertEquals("Name", res.getName());
     }
 
     @Test
     void getUserItemsSuccessWithBookings() {
-        User booker = new User();
         owner.setId(0L);
-        var prevStart = LocalDateTime.now().minusMinutes(10);
-        var prevEnd = LocalDateTime.now().minusMinutes(1);
-        var nextStart = LocalDateTime.now().plusMinutes(1);
-        var nextEnd = LocalDateTime.now().plusMinutes(10);
-        Booking prevBooking = new Booking();
-        prevBooking.setId(1L);
-        prevBooking.setBooker(booker);
-        prevBooking.setStart(prevStart);
-        prevBooking.setEnd(prevEnd);
-        prevBooking.setItem(item);
-        Booking nextBooking = new Booking();
-        nextBooking.setId(2L);
-        nextBooking.setBooker(booker);
-        nextBooking.setStart(nextStart);
-        nextBooking.setEnd(nextEnd);
-        nextBooking.setItem(item);
-
-        Mockito.when(bookingRepository.findByItemInAndStartLessThanEqualAndStatus(Mockito.anyCollection(),
-                        Mockito.any(LocalDateTime.class),
-                        Mockito.any(Status.class)))
-                .thenReturn(List.of(prevBooking));
-        Mockito.when(bookingRepository.findByItemInAndStartAfterAndStatus(Mockito.anyCollection(),
-                        Mockito.any(LocalDateTime.class),
-                        Mockito.any(Status.class)))
-                .thenReturn(List.of(nextBooking));
-        Mockito.when(itemRepository.findByOwner(Mockito.any(User.class), Mockito.any(PageRequest.class)))
+
+        Mockito.when(bookingRepository.findLastByItemIds(Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingView(1L, 1L, 0L)));
+        Mockito.when(bookingRepository.findNextByItemIds(Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingView(1L, 2L, 0L)));
+        Mockito.when(itemRepository.findByOwner(Mockito.any(User.class), Mockito.any(Pageable.class)))
                 .thenReturn(List.of(item));
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
         var res = itemService.getUserItems(0, 2, 1L);
@@ -198,7 +190,7 @@ class ItemServiceTest {
     @Test
     void getUserItemsSuccessWithoutBookings() {
 
-        Mockito.when(itemRepository.findByOwner(Mockito.any(User.class), Mockito.any(PageRequest.class)))
+        Mockito.when(itemRepository.findByOwner(Mockito.any(User.class), Mockito.any(Pageable.class)))
                 .thenReturn(List.of(item));
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
         var res = itemService.getUserItems(0, 2, 1L);
@@ -218,20 +210,30 @@ class ItemServiceTest {
 
     @Test
     void searchItemsSuccess() {
-        Comment comment = new Comment();
-        comment.setItem(item);
-        comment.setId(1L);
-        comment.setCreated(LocalDateTime.now());
-
-        Mockito.when(itemRepository.findByText(Mockito.anyString(), Mockito.any(PageRequest.class)))
-                .thenReturn(List.of(item));
-        Mockito.when(commentRepository.findByItemIn(Mockito.anyList())).thenReturn(List.of(comment));
+        var created = LocalDateTime.now();
+        CommentView comment = new SpelAwareProxyProjectionFactory().createProjection(CommentView.class,
+                Map.of("itemId", 1L, "id", 1L, "authorName", "Name", "text", "Text", "created", created));
+        Item other = new Item();
+        other.setId(2L);
+
+        Mockito.when(itemRepository.findByText(Mockito.anyString(), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(item, other));
+        Mockito.when(commentRepository.findLatestByItemIds(Mockito.eq(List.of(1L, 2L)), Mockito.anyInt()))
+                .thenReturn(List.of(comment));
         var res = itemService.searchItems(0, 2, "text");
 
+        CommentDto commentDto = new CommentDto();
+        commentDto.setId(1L);
+        commentDto.setAuthorName("Name");
+        commentDto.setText("Text");
+        commentDto.setCreated(created);
         ItemDto itemDto = new ItemDto();
         itemDto.setId(1L);
-        itemDto.setComments(List.of(commentMapper.toDTO(comment)));
-        assertEquals(List.of(itemDto), res);
+        itemDto.setComments(List.of(commentDto));
+        ItemDto otherDto = new ItemDto();
+        otherDto.setId(2L);
+        otherDto.setComments(List.of());
+        assertEquals(List.of(itemDto, otherDto), res);
     }
 
     @Test
@@ -259,37 +261,12 @@ class ItemServiceTest {
 
     @Test
     void getItemByIdSuccessWithBookings() {
-        User booker = new User();
-        booker.setId(0L);
-        Item item1 = new Item();
-        item.setOwner(owner);
-        item.setId(1L);
-        var prevStart = LocalDateTime.now().minusMinutes(10);
-        var prevEnd = LocalDateTime.now().minusMinutes(1);
-        var nextStart = LocalDateTime.now().plusMinutes(1);
-        var nextEnd = LocalDateTime.now().plusMinutes(10);
-        Booking prevBooking = new Booking();
-        prevBooking.setId(1L);
-        prevBooking.setBooker(booker);
-        prevBooking.setStart(prevStart);
-        prevBooking.setEnd(prevEnd);
-        prevBooking.setItem(item);
-        Booking nextBooking = new Booking();
-        nextBooking.setId(2L);
-        nextBooking.setBooker(booker);
-        nextBooking.setStart(nextStart);
-        nextBooking.setEnd(nextEnd);
-        nextBooking.setItem(item);
-
-
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         Mockito.when(commentRepository.findByItem(item)).thenReturn(List.of());
-        Mockito.when(bookingRepository.findByItemAndStartLessThanEqualAndStatus(Mockito.any(Item.class),
-                Mockito.any(LocalDateTime.class),
-                Mockito.any(Status.class))).thenReturn(List.of(prevBooking));
-        Mockito.when(bookingRepository.findByItemAndStartAfterAndStatus(Mockito.any(Item.class),
-                Mockito.any(LocalDateTime.class),
-                Mockito.any(Status.class))).thenReturn(List.of(nextBooking));
+        Mockito.when(bookingRepository.findLastByItemIds(Mockito.eq(List.of(1L)), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingView(1L, 1L, 0L)));
+        Mockito.when(bookingRepository.findNextByItemIds(Mockito.eq(List.of(1L)), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingView(1L, 2L, 0L)));
         var res = itemService.getItemById(1L, 1L);
 
         ItemDto itemDto = new ItemDto();
@@ -298,49 +275,22 @@ class ItemServiceTest {
         itemDto.setLastBooking(new BookingForItem(1L, 0L));
         itemDto.setNextBooking(new BookingForItem(2L, 0L));
         assertEquals(itemDto, res);
-        item.equals(item1);
     }
 
     @Test
     void getItemByIdSuccessWithoutBookings() {
-        User booker = new User();
-        booker.setId(0L);
-        Item item1 = new Item();
-        item.setOwner(owner);
-        item.setId(1L);
-        var prevStart = LocalDateTime.now().minusMinutes(10);
-        var prevEnd = LocalDateTime.now().minusMinutes(1);
-        var nextStart = LocalDateTime.now().plusMinutes(1);
-        var nextEnd = LocalDateTime.now().plusMinutes(10);
-        Booking prevBooking = new Booking();
-        prevBooking.setId(1L);
-        prevBooking.setBooker(booker);
-        prevBooking.setStart(prevStart);
-        prevBooking.setEnd(prevEnd);
-        prevBooking.setItem(item);
-        Booking nextBooking = new Booking();
-        nextBooking.setId(2L);
-        nextBooking.setBooker(booker);
-        nextBooking.setStart(nextStart);
-        nextBooking.setEnd(nextEnd);
-        nextBooking.setItem(item);
-
-
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         Mockito.when(commentRepository.findByItem(item)).thenReturn(List.of());
-        Mockito.when(bookingRepository.findByItemAndStartLessThanEqualAndStatus(Mockito.any(Item.class),
-                Mockito.any(LocalDateTime.class),
-                Mockito.any(Status.class))).thenReturn(List.of());
-        Mockito.when(bookingRepository.findByItemAndStartAfterAndStatus(Mockito.any(Item.class),
-                Mockito.any(LocalDateTime.class),
-                Mockito.any(Status.class))).thenReturn(List.of());
+        Mockito.when(bookingRepository.findLastByItemIds(Mockito.eq(List.of(1L)), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        Mockito.when(bookingRepository.findNextByItemIds(Mockito.eq(List.of(1L)), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
         var res = itemService.getItemById(1L, 1L);
 
         ItemDto itemDto = new ItemDto();
         itemDto.setId(1L);
         itemDto.setComments(List.of());
         assertEquals(itemDto, res);
-        item.equals(item1);
     }
 
     @Test
@@ -492,8 +442,7 @@ class ItemServiceTest {
 
         Item expItem = new Item();
         var resultItem = itemMapper.toModel(new ItemIncome(), null);
-        expItem.setId(0L);
-        assertEquals(expItem, resultItem);
+        assertNull(resultItem.getId());
 
         resultItem = itemMapper.toModel(null, null);
         assertNull(resultItem);
@@ -502,7 +451,9 @@ class ItemServiceTest {
         assertNull(resultItem);
 
         resultItem = itemMapper.toModel(new ItemIncome(), null, null);
-        assertEquals(expItem, resultItem);
+        assertNull(resultItem.getId());
+
+        expItem.setId(0L);
 
         resultItem = itemMapper.toModel(null, null, new ItemRequest());
         expItem.setRequest(new ItemRequest());
@@ -527,4 +478,163 @@ class ItemServiceTest {
         var resComment = commentMapper.fromDTO(commentDto, user, new Item());
         assertEquals(comment, resComment);
     }
-}
\ No newline at end of file
+
+    private BookingForItemView bookingView(long itemId, long id, long bookerId) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingForItemView.class,
+                Map.of("itemId", itemId, "id", id, "bookerId", bookerId));
+    }
+
+    @Test
+    void getItemAvailability() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = start.plusDays(1);
+        item.setAvailable(true);
+        bookingIntervalIndex.add(1L, end.minusHours(1), end.plusHours(1));
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        assertFalse(itemService.getItemAvailability(1L, start, end).isAvailable());
+        assertTrue(itemService.getItemAvailability(1L, start, end.minusHours(1)).isAvailable());
+    }
+
+    @Test
+    void getItemAvailabilityThrowValidationException() {
+        var start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(ValidationException.class, () -> itemService.getItemAvailability(1L, start, start));
+    }
+
+    @Test
+    void getFreeItemsSkipsBooked() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = start.plusDays(1);
+        Item booked = new Item();
+        booked.setId(2L);
+        booked.setName("Booked");
+        item.setName("Free");
+        Item other = new Item();
+        other.setId(3L);
+        other.setName("Other");
+        bookingIntervalIndex.add(2L, start, end);
+        Mockito.when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(Mockito.eq(1L), Mockito.any()))
+                .thenReturn(List.of(booked, other));
+
+        var res = itemService.getFreeItems(start, end, 1L, 5);
+
+        assertEquals(1, res.getItems().size());
+        assertEquals(3L, res.getItems().get(0).getId());
+        assertNull(res.getNextAfterId());
+    }
+
+    @Test
+    void getFreeItemsFullPageContinuesAfterLastItem() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = start.plusDays(1);
+        Item other = new Item();
+        other.setId(3L);
+        Mockito.when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(Mockito.eq(0L), Mockito.any()))
+                .thenReturn(List.of(item, other));
+
+        var res = itemService.getFreeItems(start, end, 0L, 1);
+
+        assertEquals(1, res.getItems().size());
+        assertEquals(1L, res.getNextAfterId());
+    }
+
+    @Test
+    void getFreeItemsStopsScanAtLimit() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = start.plusDays(1);
+        Mockito.when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(Mockito.anyLong(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(0);
+                    List<Item> batch = new ArrayList<>();
+                    for (long id = afterId + 1; id <= afterId + 100; id++) {
+                        Item booked = new Item();
+                        booked.setId(id);
+                        bookingIntervalIndex.add(id, start, end);
+                        batch.add(booked);
+                    }
+                    return batch;
+                });
+
+        var res = itemService.getFreeItems(start, end, 0L, 5);
+
+        assertTrue(res.getItems().isEmpty());
+        assertEquals(1000L, res.getNextAfterId());
+        Mockito.verify(itemRepository, Mockito.times(10))
+                .findByAvailableTrueAndIdGreaterThanOrderById(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    void getFreeItemsThrowValidationException() {
+        var start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(ValidationException.class, () -> itemService.getFreeItems(start, start.plusDays(1), -1L, 5));
+    }
+
+    @Test
+    void createItemsReturnsResultPerEntry() {
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setId(1L);
+        ItemIncome withRequest = new ItemIncome();
+        withRequest.setName("Name");
+        withRequest.setDescription("Description");
+        withRequest.setAvailable(true);
+        withRequest.setRequestId(1L);
+        ItemIncome withMissingRequest = new ItemIncome();
+        withMissingRequest.setRequestId(2L);
+        ItemIncome plain = new ItemIncome();
+        plain.setName("Plain");
+
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        Mockito.when(itemRequestRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(itemRequest));
+        Mockito.when(itemRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            assertNull(items.get(0).getId());
+            assertEquals(itemRequest, items.get(0).getRequest());
+            assertEquals("Plain", items.get(1).getName());
+            items.get(0).setId(7L);
+            items.get(1).setId(8L);
+            return items;
+        });
+
+        var results = itemService.createItems(List.of(withRequest, withMissingRequest, plain), 1L);
+
+        assertEquals(3, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(7L, results.get(0).getId());
+        assertEquals(404, results.get(1).getStatus());
+        assertNull(results.get(1).getId());
+        assertEquals("No such request was found", results.get(1).getError());
+        assertEquals(200, results.get(2).getStatus());
+        assertEquals(8L, results.get(2).getId());
+    }
+
+    @Test
+    void createItemsThrowNotFoundExceptionForUnknownOwner() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.createItems(List.of(itemIncome), 1L));
+    }
+
+    @Test
+    void createItemsThrowValidationExceptionForOversizeBatch() {
+        List<ItemIncome> itemIncomes = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            itemIncomes.add(new ItemIncome());
+        }
+
+        assertThrows(ValidationException.class, () -> itemService.createItems(itemIncomes, 1L));
+        assertThrows(ValidationException.class, () -> itemService.createItems(List.of(), 1L));
+    }
+
+    @Test
+    void createItemsThrowValidationExceptionForNullEntry() {
+        List<ItemIncome> itemIncomes = new ArrayList<>();
+        itemIncomes.add(itemIncome);
+        itemIncomes.add(null);
+
+        var exception = assertThrows(ValidationException.class, () -> itemService.createItems(itemIncomes, 1L));
+        assertEquals("Invalid items at positions [1]", exception.getMessage());
+    }
+}
@@ -15,6 +15,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -89,4 +90,29 @@ public class TestCommentRepository {
 
         assertEquals(expectesList, res);
     }
+
+    @Test
+    void testFindLatestByItemIds() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 3; i++) {
+            Comment older = new Comment();
+            older.setItem(item);
+            older.setUser(user);
+            older.setText("Text " + i);
+            older.setCreated(now.minusDays(3 - i));
+            commentRepository.save(older);
+        }
+
+        var res = commentRepository.findLatestByItemIds(List.of(item.getId()), 2);
+
+        assertEquals(2, res.size());
+        assertEquals(item.getId(), res.get(0).getItemId());
+        assertEquals("Name", res.get(0).getAuthorName());
+        assertEquals("Text 1", res.get(0).getText());
+        assertEquals("Text 2", res.get(1).getText());
+        assertEquals(now.minusDays(1), res.get(1).getCreated());
+    }
 }
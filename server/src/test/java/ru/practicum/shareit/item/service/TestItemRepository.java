@@ -61,6 +61,30 @@ public class TestItemRepository {
         assertEquals(expectesList, res);
     }
 
+    @Test
+    void testFindByTextRanksNameMatchesFirst() {
+        Item drill = new Item();
+        drill.setOwner(owner);
+        drill.setName("Дрель");
+        drill.setDescription("Дрель с насадкой под отвертку");
+        drill.setAvailable(true);
+        Item unavailable = new Item();
+        unavailable.setOwner(owner);
+        unavailable.setName("Отвертка");
+        unavailable.setDescription("Сломанная отвертка");
+        unavailable.setAvailable(false);
+
+        userRepository.save(owner);
+        repository.save(drill);
+        repository.save(unavailable);
+        repository.save(item);
+
+        PageRequest pageRequest = PageRequest.of(0, 3);
+        var res = repository.findByText("отвертк", pageRequest);
+
+        assertEquals(List.of(item, drill), res);
+    }
+
     @Test
     void testFindByOwner() {
         var expectesList = List.of(item);
@@ -8,7 +8,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemMapper;
@@ -105,7 +105,7 @@ class ItemRequestServiceTest {
 
         Mockito.when(userRepository.findById(0L)).thenReturn(Optional.of(user));
         Mockito.when(itemRequestRepository.findByOwnerNot(Mockito.any(User.class),
-                        Mockito.any(PageRequest.class)))
+                        Mockito.any(Pageable.class)))
                 .thenReturn(List.of(itemRequest));
         Mockito.when(itemRepository.findByRequestIn(List.of(itemRequest))).thenReturn(List.of(item));
         var res = itemRequestService.findAllRequests(0, 2, 0L);
@@ -129,7 +129,7 @@ class ItemRequestServiceTest {
 
         Mockito.when(userRepository.findById(0L)).thenReturn(Optional.of(user));
         Mockito.when(itemRequestRepository.findByOwnerNot(Mockito.any(User.class),
-                        Mockito.any(PageRequest.class)))
+                        Mockito.any(Pageable.class)))
                 .thenReturn(List.of(itemRequest));
         Mockito.when(itemRepository.findByRequestIn(List.of(itemRequest))).thenReturn(List.of());
         var res = itemRequestService.findAllRequests(0, 2, 0L);
@@ -141,6 +141,31 @@ class ItemRequestServiceTest {
         assertEquals(List.of(itemRequestDto), res);
     }
 
+    @Test
+    void findAllRequestsSuccessWithItemsForSomeRequests() {
+        var created = LocalDateTime.now();
+        User user = new User();
+        ItemRequest answered = new ItemRequest();
+        answered.setCreated(created);
+        answered.setId(1L);
+        ItemRequest open = new ItemRequest();
+        open.setCreated(created.plusMinutes(1));
+        open.setId(2L);
+        Item item = new Item();
+        item.setRequest(answered);
+
+        Mockito.when(userRepository.findById(0L)).thenReturn(Optional.of(user));
+        Mockito.when(itemRequestRepository.findByOwnerNot(Mockito.any(User.class),
+                        Mockito.any(Pageable.class)))
+                .thenReturn(List.of(open, answered));
+        Mockito.when(itemRepository.findByRequestIn(List.of(open, answered))).thenReturn(List.of(item));
+        var res = itemRequestService.findAllRequests(0, 2, 0L);
+
+        assertEquals(2, res.size());
+        assertEquals(List.of(itemMapper.toRequest(item)), res.get(0).getItems());
+        assertEquals(List.of(), res.get(1).getItems());
+    }
+
     @Test
     void getByIdSuccess() {
         ItemRequest itemRequest = new ItemRequest();
@@ -148,7 +173,7 @@ class ItemRequestServiceTest {
         Item item = new Item();
         item.setRequest(itemRequest);
 
-        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
         Mockito.when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(itemRequest));
         Mockito.when(itemRepository.findByRequestIn(Mockito.anyList())).thenReturn(List.of(item));
 
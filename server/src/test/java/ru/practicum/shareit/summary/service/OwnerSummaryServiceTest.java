@@ -0,0 +1,121 @@
+package ru.practicum.shareit.summary.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import ru.practicum.shareit.booking.model.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.LockedException;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.UnavailableException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class OwnerSummaryServiceTest {
+    @Mock
+    private ItemService itemService;
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private ItemRequestService itemRequestService;
+    @Mock
+    private UserRepository userRepository;
+    private OwnerSummaryService ownerSummaryService;
+
+    @BeforeEach
+    void prepare() {
+        ownerSummaryService = new OwnerSummaryService(itemService, bookingService, itemRequestService, userRepository,
+                Runnable::run, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void getOwnerSummarySuccess() {
+        ItemDto item = new ItemDto();
+        BookingDto waiting = new BookingDto();
+        waiting.setId(1L);
+        ItemRequestDto request = new ItemRequestDto();
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
+        Mockito.when(itemService.countUserItems(1L)).thenReturn(7L);
+        Mockito.when(itemService.getUserItems(0, 3, 1L)).thenReturn(List.of(item));
+        Mockito.when(bookingService.countUsersItemsBookings(1L, "WAITING")).thenReturn(1L);
+        Mockito.when(bookingService.getAllUsersItemsBookings(0, 3, 1L, "WAITING")).thenReturn(List.of(waiting));
+        Mockito.when(bookingService.countUsersItemsBookings(1L, "CURRENT")).thenReturn(0L);
+        Mockito.when(bookingService.getAllUsersItemsBookings(0, 3, 1L, "CURRENT")).thenReturn(List.of());
+        Mockito.when(itemRequestService.countOtherUsersRequests(1L)).thenReturn(4L);
+        Mockito.when(itemRequestService.findAllRequests(0, 3, 1L)).thenReturn(List.of(request));
+
+        var summary = ownerSummaryService.getOwnerSummary(1L, 3);
+
+        assertEquals(7L, summary.getItems().getCount());
+        assertEquals(List.of(item), summary.getItems().getTop());
+        assertEquals(List.of(waiting), summary.getWaitingBookings().getTop());
+        assertEquals(0L, summary.getCurrentBookings().getCount());
+        assertEquals(4L, summary.getRequests().getCount());
+        assertEquals(List.of(request), summary.getRequests().getTop());
+    }
+
+    @Test
+    void getOwnerSummaryRethrowsSectionException() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
+        Mockito.when(bookingService.countUsersItemsBookings(1L, "WAITING")).thenThrow(new LockedException("Failed"));
+
+        assertThrows(LockedException.class, () -> ownerSummaryService.getOwnerSummary(1L, 3));
+    }
+
+    @Test
+    void getOwnerSummaryThrowUnavailableExceptionOnTimeout() {
+        ownerSummaryService = new OwnerSummaryService(itemService, bookingService, itemRequestService, userRepository,
+                task -> { }, Duration.ofMillis(50));
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
+
+        assertThrows(UnavailableException.class, () -> ownerSummaryService.getOwnerSummary(1L, 3));
+    }
+
+    @Test
+    void getOwnerSummaryCancelsSubmittedSectionsWhenOneIsRejected() {
+        List<Runnable> queued = new ArrayList<>();
+        ownerSummaryService = new OwnerSummaryService(itemService, bookingService, itemRequestService, userRepository,
+                task -> {
+                    if (queued.size() == 2) {
+                        throw new TaskRejectedException("Full");
+                    }
+                    queued.add(task);
+                }, Duration.ofSeconds(10));
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
+
+        assertThrows(TaskRejectedException.class, () -> ownerSummaryService.getOwnerSummary(1L, 3));
+        queued.forEach(Runnable::run);
+
+        Mockito.verifyNoInteractions(itemService, bookingService);
+    }
+
+    @Test
+    void getOwnerSummaryThrowNotFoundExceptionForUnknownOwner() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> ownerSummaryService.getOwnerSummary(1L, 3));
+    }
+
+    @Test
+    void getOwnerSummaryThrowValidationExceptionForWrongTop() {
+        assertThrows(ValidationException.class, () -> ownerSummaryService.getOwnerSummary(1L, 0));
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+@Import({UserService.class, UserMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TestUserCache {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testUpdateAndDeleteRefreshCachedUser() {
+        UserDto user = new UserDto();
+        user.setName("Name");
+        user.setEmail("cache@email.com");
+        long id = userService.createUser(user).getId();
+
+        userService.getUserById(id);
+        assertTrue(entityManagerFactory.getCache().contains(User.class, id));
+
+        UserDto update = new UserDto();
+        update.setName("Updated");
+        userService.updateUser(update, id);
+        assertEquals("Updated", userService.getUserById(id).getName());
+
+        userService.deleteUser(id);
+        assertThrows(NotFoundException.class, () -> userService.getUserById(id));
+    }
+}